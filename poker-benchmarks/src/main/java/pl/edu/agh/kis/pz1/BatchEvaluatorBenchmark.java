@@ -0,0 +1,62 @@
+package pl.edu.agh.kis.pz1;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands per second evaluated one by one and with {@link BatchEvaluator}.
+ * Forked JVM gets <code>jdk.incubator.vector</code>, so <code>batch</code> takes the vector path
+ * if the model has been built with profile <code>vector</code> (<code>mvn install -Pvector</code>).
+ *
+ * @author Kacper Cienkosz
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@OperationsPerInvocation(BatchEvaluatorBenchmark.HANDS)
+@State(Scope.Thread)
+public class BatchEvaluatorBenchmark {
+    static final int HANDS = 1 << 16;
+
+    private final int[] cards = new int[5 * HANDS];
+    private final int[] strengths = new int[HANDS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+
+        for (int i = 0; i < HANDS; i++) {
+            long hand = BenchmarkData.randomHand(random, 5);
+
+            for (int k = 0; k < 5; k++, hand &= hand - 1)
+                cards[k * HANDS + i] = Long.numberOfTrailingZeros(hand);
+        }
+    }
+
+    @Benchmark
+    public int[] oneByOne() {
+        for (int i = 0; i < HANDS; i++)
+            strengths[i] = LookupEvaluator.evaluate(
+                    LookupEvaluator.encode(cards[i]), LookupEvaluator.encode(cards[HANDS + i]),
+                    LookupEvaluator.encode(cards[2 * HANDS + i]), LookupEvaluator.encode(cards[3 * HANDS + i]),
+                    LookupEvaluator.encode(cards[4 * HANDS + i]));
+
+        return strengths;
+    }
+
+    @Benchmark
+    public int[] batchScalar() {
+        BatchEvaluator.evaluateScalar(cards, HANDS, strengths);
+        return strengths;
+    }
+
+    @Benchmark
+    public int[] batch() {
+        BatchEvaluator.evaluate(cards, HANDS, strengths);
+        return strengths;
+    }
+}
@@ -0,0 +1,82 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Inputs shared by the benchmarks. All of them are generated from fixed seeds, so runs are comparable.
+ *
+ * @author Kacper Cienkosz
+ */
+final class BenchmarkData {
+    /**
+     * Number of prepared inputs, benchmarks cycle through them to avoid measuring one branch-predicted case.
+     */
+    static final int SIZE = 1024;
+    static final int MASK = SIZE - 1;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Draws hand of the given size without repeated cards.
+     *
+     * @param random Source of randomness.
+     * @param size Number of cards.
+     * @return Hand stored as bit mask, see {@link Hand}.
+     */
+    static long randomHand(Random random, int size) {
+        long hand = Hand.EMPTY;
+
+        while (Hand.size(hand) < size)
+            hand = Hand.with(hand, random.nextInt(Card.NUMBER_OF_CARDS));
+
+        return hand;
+    }
+
+    /**
+     * Returns hand with the same ranks and every suit shifted by one.
+     *
+     * @param hand Hand stored as bit mask.
+     * @return Hand with equal strength.
+     */
+    static long withShiftedSuits(long hand) {
+        long shifted = Hand.EMPTY;
+
+        for (long rest = hand; rest != 0; rest &= rest - 1) {
+            int code = Long.numberOfTrailingZeros(rest);
+            shifted = Hand.with(shifted, Card.code(Card.rankOf(code), (Card.suitOf(code) + 1) & 3));
+        }
+
+        return shifted;
+    }
+
+    /**
+     * Prepares pairs of five-card hands.
+     *
+     * @param ties Whether second hand of each pair should tie with the first one.
+     * @param seed Seed of the generator.
+     * @return Array of {@link #SIZE} pairs, first hands at index 0, second hands at index 1.
+     */
+    static long[][] handPairs(boolean ties, long seed) {
+        Random random = new Random(seed);
+        long[][] pairs = new long[2][SIZE];
+
+        for (int i = 0; i < SIZE; i++) {
+            pairs[0][i] = randomHand(random, 5);
+            pairs[1][i] = ties ? withShiftedSuits(pairs[0][i]) : randomHand(random, 5);
+        }
+
+        return pairs;
+    }
+
+    static ArrayList<Card>[] toLists(long[] hands) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArrayList<Card>[] lists = new ArrayList[hands.length];
+
+        for (int i = 0; i < hands.length; i++)
+            lists[i] = Hand.toCards(hands[i]);
+
+        return lists;
+    }
+}
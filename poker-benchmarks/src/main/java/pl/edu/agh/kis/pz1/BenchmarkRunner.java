@@ -0,0 +1,40 @@
+package pl.edu.agh.kis.pz1;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Entry point of the benchmarks jar.
+ * Accepts the same arguments as the JMH command line and always attaches the GC profiler,
+ * so every result reports allocation rate (gc.alloc.rate.norm is bytes allocated per operation).
+ *
+ * @author Kacper Cienkosz
+ */
+public class BenchmarkRunner {
+    /**
+     * Runs benchmarks selected by the arguments, e.g. <code>HandEvaluatorBenchmark -p hands=TIES</code>.
+     *
+     * @param args JMH command line arguments.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListWithParams()
+                || commandLineOptions.shouldListProfilers() || commandLineOptions.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        new Runner(new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
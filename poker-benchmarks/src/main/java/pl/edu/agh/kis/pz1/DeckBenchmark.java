@@ -0,0 +1,53 @@
+package pl.edu.agh.kis.pz1;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of preparing a deck for new game and dealing cards from it.
+ *
+ * @author Kacper Cienkosz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+    /**
+     * Number of cards dealt from one deck: 2 players without drawing, 4 players with full drawing, whole deck.
+     */
+    @Param({"10", "36", "52"})
+    public int cardsDealt;
+
+    /**
+     * Random source used for shuffling, see {@link RandomSource#byName(String)}.
+     */
+    @Param({"fast", "secure", "42"})
+    public String random;
+
+    private Deck deck;
+
+    @Setup
+    public void setUp() {
+        deck = new Deck(RandomSource.byName(random));
+    }
+
+    @Benchmark
+    public void shuffle() {
+        deck.newDeck();
+        deck.shuffle();
+    }
+
+    @Benchmark
+    public void shuffleAndDeal(Blackhole blackhole) {
+        deck.newDeck();
+        deck.shuffle();
+
+        for (int i = 0; i < cardsDealt; i++)
+            blackhole.consume(deck.dealCardCode());
+    }
+}
@@ -0,0 +1,56 @@
+package pl.edu.agh.kis.pz1;
+
+import org.openjdk.jmh.annotations.*;
+import pl.edu.agh.kis.pz1.exceptions.IncorrectNumbersOfPlayersException;
+import pl.edu.agh.kis.pz1.exceptions.NotEnoughCreditException;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of showdown, i.e. {@link Game#splitStakeBetweenWinners()} after a fresh deal.
+ * Showdown takes nanoseconds, less than the overhead of a per-invocation setup, so every invocation deals
+ * the game itself. Benchmark "deal" measures dealing alone: time of showdown is the difference of both.
+ *
+ * @author Kacper Cienkosz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    @Param({"2", "3", "4"})
+    public int players;
+
+    private Game game;
+
+    @Setup(Level.Trial)
+    public void setUpGame() throws IncorrectNumbersOfPlayersException {
+        game = new Game(1, players, 20);
+
+        for (int id = 0; id < players; id++)
+            game.newPlayer(id);
+    }
+
+    @Benchmark
+    public Game deal() throws IncorrectNumbersOfPlayersException, NotEnoughCreditException {
+        try {
+            game.newGame();
+        }
+        catch (NotEnoughCreditException e) {
+            // Somebody went broke after many games, so the table starts over.
+            setUpGame();
+            game.newGame();
+        }
+
+        return game;
+    }
+
+    @Benchmark
+    public HashMap<Integer, Integer> dealAndSplitStakeBetweenWinners() throws IncorrectNumbersOfPlayersException,
+            NotEnoughCreditException {
+        return deal().splitStakeBetweenWinners();
+    }
+}
@@ -0,0 +1,63 @@
+package pl.edu.agh.kis.pz1;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of evaluating and comparing five-card hands through {@link HandEvaluator}.
+ *
+ * @author Kacper Cienkosz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandEvaluatorBenchmark {
+    /**
+     * Kinds of prepared hands.
+     * RANDOM - hands dealt from shuffled deck.
+     * TIES - pairs of hands with the same ranks and different suits, so every comparison is a dead draw.
+     */
+    public enum Hands { RANDOM, TIES }
+
+    @Param({"RANDOM", "TIES"})
+    public Hands hands;
+
+    private final HandEvaluator handEvaluator = new HandEvaluator();
+    private long[] firstMasks;
+    private long[] secondMasks;
+    private ArrayList<Card>[] firstLists;
+    private ArrayList<Card>[] secondLists;
+    private int index = 0;
+
+    @Setup
+    public void setUp() {
+        long[][] pairs = BenchmarkData.handPairs(hands == Hands.TIES, 42);
+        firstMasks = pairs[0];
+        secondMasks = pairs[1];
+        firstLists = BenchmarkData.toLists(firstMasks);
+        secondLists = BenchmarkData.toLists(secondMasks);
+    }
+
+    @Benchmark
+    public HandEvaluator.HandValues evaluate() {
+        index = (index + 1) & BenchmarkData.MASK;
+        return handEvaluator.evaluate(firstLists[index]);
+    }
+
+    @Benchmark
+    public int compareHands() {
+        index = (index + 1) & BenchmarkData.MASK;
+        return handEvaluator.compareHands(firstLists[index], secondLists[index]);
+    }
+
+    @Benchmark
+    public int compareHandMasks() {
+        index = (index + 1) & BenchmarkData.MASK;
+        return handEvaluator.compareHands(firstMasks[index], secondMasks[index]);
+    }
+}
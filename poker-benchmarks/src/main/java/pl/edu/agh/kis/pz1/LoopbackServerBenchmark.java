@@ -0,0 +1,58 @@
+package pl.edu.agh.kis.pz1;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the whole server without sockets: bots (see {@link CallingStrategy}) connected through
+ * {@link LoopbackChannel}s to a {@link LoopbackServer} play the given number of games each.
+ * In the "stepped" mode one thread runs the loop of the server and the loop of the bots in turns, so every game
+ * is played in the same order; in the "threads" mode the server has one worker thread and the bots another.
+ * Server does not log messages, see property <code>poker.trace</code>.
+ *
+ * @author Kacper Cienkosz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dpoker.trace=false", "-Dpoker.random=7"})
+@State(Scope.Thread)
+public class LoopbackServerBenchmark {
+    @Param({"stepped", "threads"})
+    public String mode;
+
+    @Param({"300"})
+    public int bots;
+
+    @Param({"10"})
+    public int games;
+
+    @Benchmark
+    public long playGames() throws IOException {
+        boolean stepped = "stepped".equals(mode);
+        long before = CallingStrategy.gamesPlayed.get();
+
+        try (LoopbackServer server = new LoopbackServer(3, stepped ? 0 : 1)) {
+            ClientLoop loop = new ClientLoop();
+
+            for (int bot = 0; bot < bots; bot++)
+                loop.connect(server.connect(), new CallingStrategy(games), false);
+
+            if (stepped) {
+                while (loop.hasSessions()) {
+                    server.poll();
+                    loop.poll(false);
+                }
+
+                loop.close();
+            }
+            else
+                loop.run();
+        }
+
+        return CallingStrategy.gamesPlayed.get() - before;
+    }
+}
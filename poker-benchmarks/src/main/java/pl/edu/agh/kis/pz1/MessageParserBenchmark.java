@@ -0,0 +1,81 @@
+package pl.edu.agh.kis.pz1;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of parsing and building protocol messages with {@link MessageParser}
+ * and with {@link MessageCodec} working on buffers.
+ *
+ * @author Kacper Cienkosz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageParserBenchmark {
+    /**
+     * Typical messages: bidding request, hand sent by the server and draw request sent by the client.
+     */
+    public enum MessageKind {
+        BID(MessageParser.Action.BID, "40 20"),
+        HAND(MessageParser.Action.HAND, "ACE of SPADES\nKING of HEARTS\nTEN of CLUBS\nTEN of DIAMONDS\nFOUR of SPADES\n"),
+        DRAW(MessageParser.Action.DRAW, "0 2 3");
+
+        final MessageParser.Action action;
+        final String parameters;
+
+        MessageKind(MessageParser.Action action, String parameters) {
+            this.action = action;
+            this.parameters = parameters;
+        }
+    }
+
+    @Param({"BID", "HAND", "DRAW"})
+    public MessageKind message;
+
+    private final MessageParser parser = new MessageParser();
+    private final Message decoded = new Message();
+    private final ByteBuffer buffer = ByteBuffer.allocate(1024);
+    private String text;
+    private ByteBuffer bytes;
+
+    @Setup
+    public void setUp() {
+        text = new MessageParser().parse(12, 3, message.action, message.parameters);
+        bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public String parse() {
+        // The same calls as PokerServer.handleRead performs for every message.
+        parser.parse(text);
+        parser.getGameId();
+        parser.getPlayerId();
+        parser.getActionType();
+        return parser.getActionParameters();
+    }
+
+    @Benchmark
+    public String encode() {
+        return parser.parse(12, 3, message.action, message.parameters);
+    }
+
+    @Benchmark
+    public Message decode() {
+        MessageCodec.decode(bytes, 0, bytes.limit(), decoded);
+        return decoded;
+    }
+
+    @Benchmark
+    public ByteBuffer encodeInto() {
+        buffer.clear();
+        MessageCodec.encode(12, 3, message.action, message.parameters, buffer);
+        return buffer;
+    }
+}
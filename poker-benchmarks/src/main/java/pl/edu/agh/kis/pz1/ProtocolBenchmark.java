@@ -0,0 +1,117 @@
+package pl.edu.agh.kis.pz1;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of encoding and decoding messages of one hand in the text and in the binary format,
+ * see {@link MessageCodec} and {@link BinaryMessageCodec}. Number of bytes of all frames of the hand
+ * is printed once per trial.
+ *
+ * @author Kacper Cienkosz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProtocolBenchmark {
+    /**
+     * Messages exchanged with one player during a hand, in the order they are sent.
+     */
+    private static final Object[][] HAND = {
+            { MessageParser.Action.START, "" },
+            { MessageParser.Action.HAND, "ACE of SPADES\nKING of HEARTS\nTEN of CLUBS\nTEN of DIAMONDS\nFOUR of SPADES\n" },
+            { MessageParser.Action.EVAL, "Pair" },
+            { MessageParser.Action.BID, "0 -20" },
+            { MessageParser.Action.BID, "20" },
+            { MessageParser.Action.CREDIT, "980" },
+            { MessageParser.Action.DRAW, "" },
+            { MessageParser.Action.DRAW, "0 1 4" },
+            { MessageParser.Action.HAND, "TEN of HEARTS\nTEN of SPADES\nTEN of CLUBS\nTEN of DIAMONDS\nSIX of HEARTS\n" },
+            { MessageParser.Action.EVAL, "Four of a kind" },
+            { MessageParser.Action.BID, "20 0" },
+            { MessageParser.Action.BID, "0" },
+            { MessageParser.Action.PRIZE, "80" },
+            { MessageParser.Action.CREDIT, "1060" },
+            { MessageParser.Action.END, "0" },
+            { MessageParser.Action.ACCEPT, "" },
+    };
+
+    @Param({"text", "binary"})
+    public String format;
+
+    private boolean binary;
+    private final ByteBuffer buffer = ByteBuffer.allocate(4096);
+    private final FrameDecoder decoder = new FrameDecoder();
+    private final Message decoded = new Message();
+    private ByteBuffer encoded;
+    private BufferChannel channel;
+
+    @Setup
+    public void setUp() {
+        binary = "binary".equals(format);
+        encodeHand();
+        encoded = ByteBuffer.allocate(buffer.position());
+        encoded.put(buffer.flip()).flip();
+        channel = new BufferChannel(encoded);
+    }
+
+    @TearDown
+    public void printBytesPerHand() {
+        System.out.println("Bytes per hand (" + format + "): " + encoded.limit());
+    }
+
+    @Benchmark
+    public ByteBuffer encodeHand() {
+        buffer.clear();
+
+        for (Object[] message : HAND)
+            FrameEncoder.encode(12, 3, (MessageParser.Action) message[0], (String) message[1], binary, buffer);
+
+        return buffer;
+    }
+
+    @Benchmark
+    public int decodeHand() throws Exception {
+        int count = 0;
+        encoded.rewind();
+        decoder.readFrom(channel);
+
+        while (decoder.nextMessage(decoded))
+            count++;
+
+        return count;
+    }
+
+    /**
+     * Channel returning contents of a buffer, so decoding is measured without a socket.
+     */
+    private static final class BufferChannel implements ReadableByteChannel {
+        private final ByteBuffer source;
+
+        BufferChannel(ByteBuffer source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read(ByteBuffer destination) {
+            int length = source.remaining();
+            destination.put(source);
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
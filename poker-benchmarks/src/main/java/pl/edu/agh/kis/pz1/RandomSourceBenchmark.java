@@ -0,0 +1,40 @@
+package pl.edu.agh.kis.pz1;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of random sources drawing card positions, compared with a shared {@link Random} ("shared").
+ * Run with <code>-t</code> greater than 1 to see contention on the shared generator.
+ *
+ * @author Kacper Cienkosz
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomSourceBenchmark {
+    private static final Random SHARED_RANDOM = new Random();
+
+    /**
+     * Random source, see {@link RandomSource#byName(String)}, or "shared" for the global {@link Random}.
+     */
+    @Param({"fast", "secure", "42", "shared"})
+    public String random;
+
+    private RandomSource source;
+
+    @Setup
+    public void setUp() {
+        source = "shared".equals(random) ? SHARED_RANDOM::nextInt : RandomSource.byName(random);
+    }
+
+    @Benchmark
+    public int nextInt() {
+        return source.nextInt(Card.NUMBER_OF_CARDS);
+    }
+}
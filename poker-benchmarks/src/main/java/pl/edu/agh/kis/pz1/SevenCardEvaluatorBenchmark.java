@@ -0,0 +1,49 @@
+package pl.edu.agh.kis.pz1;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link SevenCardEvaluator} against taking the best of all 21 five-card subsets.
+ *
+ * @author Kacper Cienkosz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SevenCardEvaluatorBenchmark {
+    private final long[] hands = new long[BenchmarkData.SIZE];
+    private int index = 0;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+
+        for (int i = 0; i < hands.length; i++)
+            hands[i] = BenchmarkData.randomHand(random, 7);
+    }
+
+    @Benchmark
+    public int evaluate() {
+        index = (index + 1) & BenchmarkData.MASK;
+        return SevenCardEvaluator.evaluate(hands[index]);
+    }
+
+    @Benchmark
+    public int bestOfSubsets() {
+        index = (index + 1) & BenchmarkData.MASK;
+        long hand = hands[index];
+        int best = 0;
+
+        for (long first = hand; first != 0; first &= first - 1)
+            for (long second = first & (first - 1); second != 0; second &= second - 1)
+                best = Math.max(best, LookupEvaluator.evaluate(hand & ~Long.lowestOneBit(first) & ~Long.lowestOneBit(second)));
+
+        return best;
+    }
+}
@@ -0,0 +1,154 @@
+package pl.edu.agh.kis.pz1;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the transports of the server on one host: TCP loopback and Unix domain socket.
+ * Echo thread decodes every frame with {@link FrameDecoder} and sends the message back, as the server answers a request.
+ * "roundTrip" sends one bid and waits for the answer, "pipelined" sends {@link #BATCH} bids at once and reads
+ * all answers, giving messages per second when the socket is kept busy. Sockets use the default options,
+ * as the ones of the server.
+ *
+ * @author Kacper Cienkosz
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SocketTransportBenchmark {
+    static final int BATCH = 64;
+
+    @Param({"tcp", "unix"})
+    public String transport;
+
+    private ServerSocketChannel listener;
+    private Path socketFile;
+    private SocketChannel channel;
+    private Thread echo;
+    private final ByteBuffer request = ByteBuffer.allocate(64);
+    private final ByteBuffer batch = ByteBuffer.allocate(64 * BATCH);
+    private final FrameDecoder decoder = new FrameDecoder();
+    private final Message answer = new Message();
+
+    @Setup(Level.Trial)
+    public void connect() throws IOException {
+        SocketAddress address;
+
+        if ("unix".equals(transport)) {
+            socketFile = Files.createTempDirectory("poker").resolve("poker.sock");
+            address = UnixDomainSocketAddress.of(socketFile);
+            listener = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            listener.bind(address);
+            channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        }
+        else {
+            listener = ServerSocketChannel.open();
+            listener.bind(new InetSocketAddress("localhost", 0));
+            address = listener.getLocalAddress();
+            channel = SocketChannel.open();
+        }
+
+        echo = new Thread(this::echo, "echo");
+        echo.start();
+        channel.connect(address);
+
+        FrameEncoder.encode(12, 3, MessageParser.Action.BID, "20", false, request);
+        request.flip();
+
+        for (int i = 0; i < BATCH; i++)
+            FrameEncoder.encode(12, 3, MessageParser.Action.BID, Integer.toString(i), false, batch);
+
+        batch.flip();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException, InterruptedException {
+        channel.close();
+        echo.join();
+        listener.close();
+
+        if (socketFile != null) {
+            Files.deleteIfExists(socketFile);
+            Files.deleteIfExists(socketFile.getParent());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int roundTrip() throws IOException {
+        write(request);
+        return read(1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public int pipelined() throws IOException {
+        write(batch);
+        return read(BATCH);
+    }
+
+    private void write(ByteBuffer frames) throws IOException {
+        frames.rewind();
+
+        while (frames.hasRemaining())
+            channel.write(frames);
+    }
+
+    private int read(int messages) throws IOException {
+        int sum = 0;
+
+        while (messages > 0) {
+            while (messages > 0 && decoder.nextMessage(answer)) {
+                sum += answer.getIntParameter();
+                messages--;
+            }
+
+            if (messages > 0 && decoder.readFrom(channel) < 0)
+                throw new IOException("Echo has closed the connection.");
+        }
+
+        return sum;
+    }
+
+    /**
+     * Answers every message of the only connection with the same message.
+     */
+    private void echo() {
+        try (SocketChannel client = listener.accept()) {
+            FrameDecoder echoDecoder = new FrameDecoder();
+            Message received = new Message();
+            ByteBuffer out = ByteBuffer.allocate(64 * BATCH);
+
+            while (echoDecoder.readFrom(client) >= 0) {
+                out.clear();
+
+                while (echoDecoder.nextMessage(received))
+                    FrameEncoder.encode(received.getGameId(), received.getPlayerId(), received.getActionType(),
+                            received.getActionParameters(), false, out);
+
+                out.flip();
+
+                while (out.hasRemaining())
+                    client.write(out);
+            }
+        }
+        catch (IOException e) {
+            // Benchmark has closed the connection.
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class CallingStrategy is a simple bot: it always calls or checks, keeps its cards and plays the given number
+ * of games. It leaves earlier if other players leave the table. Results of all bots are summed up in shared counters.
+ *
+ * @author Kacper Cienkosz
+ */
+class CallingStrategy implements ClientStrategy {
+    /**
+     * Games played and won by all bots.
+     */
+    static final AtomicLong gamesPlayed = new AtomicLong();
+    static final AtomicLong gamesWon = new AtomicLong();
+
+    private final int games;
+    private int played = 0;
+
+    /**
+     * Creates bot.
+     *
+     * @param games Number of games the bot plays before leaving.
+     */
+    CallingStrategy(int games) {
+        this.games = games;
+    }
+
+    @Override
+    public void onPrize(int prize) {
+        if (prize > 0)
+            gamesWon.incrementAndGet();
+    }
+
+    @Override
+    public Decision bid(int currentStake, int amountToCall) {
+        return Decision.bid(Math.max(0, amountToCall));
+    }
+
+    @Override
+    public Decision draw() {
+        return Decision.draw();
+    }
+
+    @Override
+    public Decision gameEnded(int playersMissing) {
+        played++;
+        gamesPlayed.incrementAndGet();
+
+        return played < games && playersMissing == 0 ? Decision.playOn() : Decision.leave();
+    }
+}
@@ -0,0 +1,215 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Class ClientLoop serves any number of {@link ClientSession}s with one selector on one thread,
+ * so thousands of bots can play on a few threads. Sessions are opened with
+ * {@link #connect(SocketAddress, ClientStrategy, boolean)} from any thread. Loop runs until all its sessions are closed.
+ * Strategies that take time to decide schedule their answers with {@link #schedule(long, Runnable)}
+ * instead of blocking the loop.
+ * <p>
+ * Sessions connected to an in-process server with {@link #connect(LoopbackChannel, ClientStrategy, boolean)} are not
+ * in the selector: the listener of the channel queues the session as ready and wakes the selector up.
+ * Loop can be run step by step with {@link #poll(boolean)} instead of {@link #run()}, e.g. by the thread
+ * that runs a <code>LoopbackServer</code> as well.
+ *
+ * @author Kacper Cienkosz
+ */
+public class ClientLoop implements Runnable {
+    private final Selector selector;
+    /**
+     * Timer running delayed tasks of the sessions on this loop.
+     */
+    private final EventLoopTimer timer = new EventLoopTimer();
+    /**
+     * Sessions connecting and not registered in the selector yet.
+     */
+    private final Queue<ClientSession> connecting = new ConcurrentLinkedQueue<>();
+    /**
+     * Loopback sessions that have received data or have been closed by the server.
+     */
+    private final Queue<ClientSession> ready = new ConcurrentLinkedQueue<>();
+    /**
+     * Number of registered sessions that have not been closed yet.
+     */
+    private int open = 0;
+
+    public ClientLoop() throws IOException {
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Starts connecting new session to the server. Connection is completed by the loop.
+     *
+     * @param address Address of the server, TCP or Unix domain socket.
+     * @param strategy Strategy playing for the session.
+     * @param binary Whether the session asks for the binary format.
+     * @return New session.
+     * @throws IOException If the socket cannot be opened.
+     */
+    public ClientSession connect(SocketAddress address, ClientStrategy strategy, boolean binary) throws IOException {
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+                ? SocketChannel.open(StandardProtocolFamily.UNIX) : SocketChannel.open();
+        channel.configureBlocking(false);
+        channel.connect(address);
+
+        return add(channel, strategy, binary);
+    }
+
+    /**
+     * Connects new session through the client end of a {@link LoopbackChannel}.
+     *
+     * @param channel Client end of the channel, given by the in-process server.
+     * @param strategy Strategy playing for the session.
+     * @param binary Whether the session asks for the binary format.
+     * @return New session.
+     */
+    public ClientSession connect(LoopbackChannel channel, ClientStrategy strategy, boolean binary) {
+        return add(channel, strategy, binary);
+    }
+
+    private ClientSession add(ByteChannel channel, ClientStrategy strategy, boolean binary) {
+        ClientSession session = new ClientSession(channel, strategy, binary, () -> open--);
+        connecting.add(session);
+        selector.wakeup();
+
+        return session;
+    }
+
+    /**
+     * Checks whether the loop has sessions to serve.
+     *
+     * @return <code>true</code> if a session is connecting or open.
+     */
+    public boolean hasSessions() {
+        return !connecting.isEmpty() || open > 0;
+    }
+
+    /**
+     * Runs task on the thread of the loop after a delay, e.g. sends a decision with {@link ClientSession#send(Decision)}.
+     * Must be called on the thread of the loop, i.e. by a strategy.
+     *
+     * @param delayMillis Delay in milliseconds.
+     * @param task Task to run.
+     */
+    public void schedule(long delayMillis, Runnable task) {
+        timer.schedule(delayMillis, task);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted() && hasSessions())
+                poll(true);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+        finally {
+            close();
+        }
+    }
+
+    /**
+     * Runs one iteration of the loop: registers new sessions, handles their events and runs tasks of the timer.
+     *
+     * @param block Whether to wait for events until the next task of the timer. Loop run step by step
+     *              by another thread does not block and does not select if no socket is registered.
+     * @throws IOException Something goes wrong while selecting.
+     */
+    public void poll(boolean block) throws IOException {
+        for (ClientSession session = connecting.poll(); session != null; session = connecting.poll())
+            register(session);
+
+        long timeout = timer.millisToNext();
+
+        if (block && timeout != 0 && ready.isEmpty())
+            selector.select(Math.max(timeout, 0));
+        else if (block || !selector.keys().isEmpty())
+            selector.selectNow();
+
+        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+
+        while (it.hasNext()) {
+            SelectionKey key = it.next();
+            it.remove();
+            handle(key);
+        }
+
+        // Loopback channel announces data only after it has been drained.
+        for (ClientSession session = ready.poll(); session != null; session = ready.poll())
+            while (session.isOpen() && session.read() > 0);
+
+        timer.runExpired();
+    }
+
+    /**
+     * Closes the selector of the loop, called when the loop run by {@link #run()} ends.
+     */
+    public void close() {
+        try {
+            selector.close();
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void register(ClientSession session) throws IOException {
+        open++;
+
+        if (session.getChannel() instanceof LoopbackChannel loopback) {
+            loopback.setListener(() -> {
+                ready.add(session);
+                selector.wakeup();
+            });
+            // Data sent before the listener was set.
+            ready.add(session);
+            session.connected();
+            return;
+        }
+
+        SocketChannel channel = (SocketChannel) session.getChannel();
+        SelectionKey key = channel.register(selector, channel.isConnected() ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, session);
+        session.setKey(key);
+
+        if (channel.isConnected())
+            session.connected();
+    }
+
+    private void handle(SelectionKey key) {
+        ClientSession session = (ClientSession) key.attachment();
+
+        if (key.isValid() && key.isConnectable()) {
+            try {
+                if (!((SocketChannel) session.getChannel()).finishConnect())
+                    return;
+
+                key.interestOps(SelectionKey.OP_READ);
+                session.connected();
+            }
+            catch (IOException e) {
+                System.out.println("Unable to connect: " + e.getMessage());
+                session.close();
+                return;
+            }
+        }
+
+        if (key.isValid() && key.isWritable())
+            session.flush();
+
+        if (key.isValid() && key.isReadable())
+            session.read();
+    }
+}
@@ -0,0 +1,242 @@
+package pl.edu.agh.kis.pz1;
+
+import pl.edu.agh.kis.pz1.exceptions.InvalidFrameException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.SelectionKey;
+
+/**
+ * Class ClientSession handles the protocol of one connection to the server on behalf of a {@link ClientStrategy}.
+ * Socket is non-blocking and served by a {@link ClientLoop}: received frames are decoded and passed
+ * to the strategy, its decisions are encoded into the outbound buffer and written when the socket accepts them.
+ * Session of an in-process client uses a {@link LoopbackChannel} instead of a socket, with the same frames.
+ * Not thread-safe, used only by the thread of the loop.
+ *
+ * @author Kacper Cienkosz
+ */
+public class ClientSession {
+    private final ByteChannel channel;
+    private final ClientStrategy strategy;
+    /**
+     * Whether the session asks for the binary format when the server offers it, see {@link BinaryMessageCodec}.
+     */
+    private final boolean wantsBinary;
+    /**
+     * Called once when the session is closed.
+     */
+    private final Runnable onClose;
+    private final FrameDecoder decoder = new FrameDecoder();
+    private final Message received = new Message();
+    /**
+     * Encoded messages waiting to be sent, in write mode.
+     */
+    private ByteBuffer outbound = ByteBuffer.allocate(1024);
+    private SelectionKey key;
+    private int gameId = -1;
+    private int playerId = -1;
+    private boolean binary = false;
+
+    ClientSession(ByteChannel channel, ClientStrategy strategy, boolean wantsBinary, Runnable onClose) {
+        this.channel = channel;
+        this.strategy = strategy;
+        this.wantsBinary = wantsBinary;
+        this.onClose = onClose;
+    }
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    ByteChannel getChannel() {
+        return channel;
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    void connected() {
+        strategy.onConnect(this);
+    }
+
+    /**
+     * Reads bytes available in the socket and handles all complete messages.
+     * Session closed by the server is closed and the strategy is told about it.
+     *
+     * @return Number of bytes read, <code>-1</code> if the session has been closed.
+     */
+    int read() {
+        try {
+            int read = decoder.readFrom(channel);
+
+            if (read < 0) {
+                close();
+                return -1;
+            }
+
+            while (isOpen() && decoder.nextMessage(received))
+                handle(received);
+
+            return read;
+        }
+        catch (InvalidFrameException e) {
+            System.out.println(e.getMessage() + " Connection closed.");
+            close();
+        }
+        catch (IOException e) {
+            close();
+        }
+
+        return -1;
+    }
+
+    /**
+     * Passes message received from the server to the strategy and sends its decision.
+     * Message with malformed numbers closes only this session, other sessions of the loop go on.
+     *
+     * @param message Message received from the server.
+     */
+    void handle(Message message) {
+        try {
+            dispatch(message);
+        }
+        catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Incorrect parameters from server: " + message + " Connection closed.");
+            close();
+        }
+    }
+
+    private void dispatch(Message message) {
+        switch (message.getActionType()) {
+            case ACCEPT -> accept(message);
+            case DENY -> {
+                strategy.onDeny(message.getActionParameters());
+
+                // Server refuses to seat the player.
+                if (playerId == -1)
+                    close();
+            }
+            case START -> strategy.onStart();
+            case HAND -> strategy.onHand(message.getActionParameters());
+            case EVAL -> strategy.onEvaluation(message.getActionParameters());
+            case CREDIT -> strategy.onCredit(message.getIntParameter());
+            case PRIZE -> strategy.onPrize(message.getIntParameter());
+            case TIMEOUT -> strategy.onTimeout(message.getActionParameters());
+            case BID -> {
+                String[] stakes = message.getActionParameters().split(" ");
+                send(strategy.bid(Integer.parseInt(stakes[0]), Integer.parseInt(stakes[1])));
+            }
+            case DRAW -> send(strategy.draw());
+            case END -> send(strategy.gameEnded(message.getIntParameter()));
+            case DISCONNECT -> close();
+            default -> System.out.println("Unknown command from server: " + message);
+        }
+    }
+
+    private void accept(Message message) {
+        if (playerId != -1)
+            return;
+
+        gameId = message.getGameId();
+        playerId = message.getPlayerId();
+
+        if (wantsBinary && BinaryMessageCodec.NEGOTIATION.equals(message.getActionParameters())) {
+            write(MessageParser.Action.ACCEPT, BinaryMessageCodec.NEGOTIATION);
+            binary = true;
+        }
+
+        strategy.onAccept(this);
+    }
+
+    /**
+     * Sends decision to the server. Decision to leave closes the session after the message is written.
+     * Must be called on the thread of the loop serving the session.
+     *
+     * @param decision Decision of the strategy, <code>null</code> sends nothing.
+     */
+    public void send(Decision decision) {
+        if (decision == null || !isOpen())
+            return;
+
+        write(decision.getAction(), decision.getParameters());
+
+        if (decision.getAction() == MessageParser.Action.DISCONNECT)
+            close();
+    }
+
+    private void write(MessageParser.Action action, String parameters) {
+        int frameLength = FrameEncoder.maxFrameLength(parameters);
+
+        if (outbound.remaining() < frameLength) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(outbound.capacity() * 2, outbound.position() + frameLength));
+            outbound.flip();
+            grown.put(outbound);
+            outbound = grown;
+        }
+
+        FrameEncoder.encode(gameId, playerId, action, parameters, binary, outbound);
+        flush();
+    }
+
+    /**
+     * Writes pending bytes until the buffer is empty or the socket buffer is full.
+     * Interest in <code>OP_WRITE</code> is set only while bytes are waiting.
+     */
+    void flush() {
+        outbound.flip();
+
+        try {
+            channel.write(outbound);
+        }
+        catch (IOException e) {
+            outbound.clear();
+            close();
+            return;
+        }
+
+        outbound.compact();
+
+        if (key != null && key.isValid())
+            key.interestOps(outbound.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    /**
+     * Closes the connection, pending messages are written first if the socket takes them at once.
+     */
+    public void close() {
+        if (!isOpen())
+            return;
+
+        try {
+            outbound.flip();
+            channel.write(outbound);
+        }
+        catch (IOException e) {
+            // Server is already gone.
+        }
+
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        onClose.run();
+        strategy.onDisconnect();
+    }
+}
@@ -0,0 +1,100 @@
+package pl.edu.agh.kis.pz1;
+
+/**
+ * Interface ClientStrategy plays poker for one {@link ClientSession}: it is told about messages received
+ * from the server and answers requests for bidding, drawing and playing on with a {@link Decision}.
+ * Methods are called on the thread of the {@link ClientLoop} serving the session, so they should return quickly
+ * when many sessions share the loop. Strategy that returns <code>null</code> answers later
+ * with {@link ClientSession#send(Decision)}, called on the same thread.
+ * Interactive console is one implementation, see {@link ConsoleStrategy}.
+ *
+ * @author Kacper Cienkosz
+ */
+public interface ClientStrategy {
+    /**
+     * Called when the connection has been established, before the server seats the player.
+     *
+     * @param session Session of the player, without IDs yet.
+     */
+    default void onConnect(ClientSession session) {
+    }
+
+    /**
+     * Called when the player has been seated at a table.
+     *
+     * @param session Session of the player, with IDs of the player and the game.
+     */
+    default void onAccept(ClientSession session) {
+    }
+
+    /**
+     * Called when server has refused the request or the connection.
+     *
+     * @param reason Reason given by the server.
+     */
+    default void onDeny(String reason) {
+    }
+
+    default void onStart() {
+    }
+
+    /**
+     * Called with the hand of the player.
+     *
+     * @param hand Cards, one per line, e.g. "ACE of SPADES".
+     */
+    default void onHand(String hand) {
+    }
+
+    /**
+     * Called with the evaluation of the hand.
+     *
+     * @param handValue Name of the hand value, e.g. "Pair".
+     */
+    default void onEvaluation(String handValue) {
+    }
+
+    default void onCredit(int credit) {
+    }
+
+    default void onPrize(int prize) {
+    }
+
+    /**
+     * Called when the server has decided for the player who has not answered in time.
+     *
+     * @param action Code of the action taken for the player.
+     */
+    default void onTimeout(String action) {
+    }
+
+    /**
+     * Called when the connection has been closed by the server or by the player.
+     */
+    default void onDisconnect() {
+    }
+
+    /**
+     * Answers the request for bidding.
+     *
+     * @param currentStake Highest bid of the current round.
+     * @param amountToCall Credits the player has to bid to stay in the game, not positive if the player can check.
+     * @return Decision: bid, fold or a request for information, <code>null</code> to answer later.
+     */
+    Decision bid(int currentStake, int amountToCall);
+
+    /**
+     * Answers the request for discarding cards.
+     *
+     * @return Decision: draw or a request for information, <code>null</code> to answer later.
+     */
+    Decision draw();
+
+    /**
+     * Answers whether the player plays the next game.
+     *
+     * @param playersMissing Number of players the table waits for.
+     * @return {@link Decision#playOn()} or {@link Decision#leave()}, <code>null</code> to answer later.
+     */
+    Decision gameEnded(int playersMissing);
+}
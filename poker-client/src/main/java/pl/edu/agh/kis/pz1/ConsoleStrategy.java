@@ -0,0 +1,198 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.Scanner;
+
+/**
+ * Class ConsoleStrategy lets the user play: messages of the server are printed and decisions are typed in.
+ * Reading the console blocks the thread of the loop, so the loop should serve only this session.
+ *
+ * @author Kacper Cienkosz
+ */
+class ConsoleStrategy implements ClientStrategy {
+    private final Scanner scanner = new Scanner(System.in);
+    private boolean seated = false;
+    /**
+     * Whether the player has decided to leave, to tell it apart from the server closing the connection.
+     */
+    private boolean leaving = false;
+
+    @Override
+    public void onAccept(ClientSession session) {
+        seated = true;
+        System.out.println("Connection has been established.\n" +
+                "Your player ID is: " + session.getPlayerId() + ".\n" +
+                "Your game ID is: " + session.getGameId() + ".");
+    }
+
+    @Override
+    public void onDeny(String reason) {
+        if (seated)
+            System.out.println("Incorrect action: " + reason);
+        else
+            System.out.println("Unable to establish connection.");
+    }
+
+    @Override
+    public void onStart() {
+        System.out.println("Game has started.");
+    }
+
+    @Override
+    public void onHand(String hand) {
+        System.out.println("Your hand:");
+        System.out.println(hand);
+    }
+
+    @Override
+    public void onEvaluation(String handValue) {
+        System.out.println("Your hand value is: " + handValue);
+    }
+
+    @Override
+    public void onCredit(int credit) {
+        System.out.println("Your current credit is: " + credit + ".");
+    }
+
+    @Override
+    public void onPrize(int prize) {
+        if (prize > 0) {
+            System.out.println("You won!");
+            System.out.println("Your prize is: " + prize);
+            return;
+        }
+
+        System.out.println("You did not win.");
+    }
+
+    @Override
+    public void onTimeout(String action) {
+        System.out.println("Time for decision is over, server has made default action: " + action + ".");
+    }
+
+    @Override
+    public void onDisconnect() {
+        System.out.println(leaving ? "Disconnected." : "Server disconnected.");
+    }
+
+    @Override
+    public Decision bid(int currentStake, int amountToCall) {
+        System.out.println("It is time for bidding.");
+        System.out.println("Current stake is: " + currentStake);
+        System.out.println("You must bid at least: " + amountToCall);
+
+        while (true) {
+            System.out.println("""
+                        What do you want to do?
+                        b - bid.
+                        c - check.
+                        e - get evaluation.
+                        f - fold.
+                        h - get hand.
+                        r - check your credit.
+                        """);
+
+            switch (scanner.nextLine().trim()) {
+                case "b" -> {
+                    return Decision.bid(readBid());
+                }
+                case "c" -> {
+                    return Decision.bid(Math.max(0, amountToCall));
+                }
+                case "e" -> {
+                    return Decision.evaluation();
+                }
+                case "f" -> {
+                    return Decision.fold();
+                }
+                case "h" -> {
+                    return Decision.hand();
+                }
+                case "r" -> {
+                    return Decision.credit();
+                }
+                default -> System.out.println("Incorrect input.");
+            }
+        }
+    }
+
+    private int readBid() {
+        System.out.println("How much do you want to bid?");
+
+        while (true) {
+            String scanned = scanner.nextLine().trim();
+
+            try {
+                int bid = Integer.parseInt(scanned);
+
+                if (bid >= 0)
+                    return bid;
+
+                System.out.println("Incorrect value. Bid should be greater or equal than 0.");
+            }
+            catch (NumberFormatException e) {
+                System.out.println("Incorrect value. Your bid should be an integer greater or equal than 0.");
+            }
+        }
+    }
+
+    @Override
+    public Decision draw() {
+        System.out.println("It is time for discarding cards.");
+
+        while (true) {
+            System.out.println("""
+                        What do you want to do?
+                        d - discard cards.
+                        e - get evaluation.
+                        h - get hand.""");
+
+            switch (scanner.nextLine().trim()) {
+                case "d" -> {
+                    System.out.println("""
+                        Type in cards you want to discard in format:
+                        0 2 3
+                        That means you want to discard first, third, and fourth card.
+                        If you don't want to discard any card then just press enter.
+                        """);
+
+                    return Decision.draw(scanner.nextLine());
+                }
+                case "e" -> {
+                    return Decision.evaluation();
+                }
+                case "h" -> {
+                    return Decision.hand();
+                }
+                default -> System.out.println("Incorrect input.");
+            }
+        }
+    }
+
+    @Override
+    public Decision gameEnded(int playersMissing) {
+        if (playersMissing == 0)
+            System.out.println("Game ended!");
+        else {
+            System.out.println(playersMissing + " player(s) missing.");
+            System.out.println("Do you want to wait or disconnect?");
+        }
+
+        while (true) {
+            System.out.println("""
+                d - if you want to disconnect.
+                p - if you want to play on.""");
+
+            String action = scanner.nextLine().trim();
+
+            if (action.equals("d")) {
+                leaving = true;
+                return Decision.leave();
+            }
+
+            if (action.equals("p"))
+                return Decision.playOn();
+
+            System.out.println("Incorrect input.");
+        }
+    }
+}
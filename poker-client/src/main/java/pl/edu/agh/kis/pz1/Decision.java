@@ -0,0 +1,127 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.StringJoiner;
+
+/**
+ * Class Decision is the answer of a {@link ClientStrategy} to a request of the server,
+ * i.e. the message the {@link ClientSession} sends back. Decisions are immutable and can be shared.
+ *
+ * @author Kacper Cienkosz
+ */
+public final class Decision {
+    private static final Decision FOLD = new Decision(MessageParser.Action.FOLD, "");
+    private static final Decision KEEP_CARDS = new Decision(MessageParser.Action.DRAW, "");
+    private static final Decision HAND = new Decision(MessageParser.Action.HAND, "");
+    private static final Decision EVALUATION = new Decision(MessageParser.Action.EVAL, "");
+    private static final Decision CREDIT = new Decision(MessageParser.Action.CREDIT, "");
+    private static final Decision PLAY_ON = new Decision(MessageParser.Action.ACCEPT, "");
+    private static final Decision LEAVE = new Decision(MessageParser.Action.DISCONNECT, "");
+
+    private final MessageParser.Action action;
+    private final String parameters;
+
+    private Decision(MessageParser.Action action, String parameters) {
+        this.action = action;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Bids credits, <code>0</code> checks.
+     *
+     * @param credits Number of credits to bid.
+     * @return Decision to bid.
+     */
+    public static Decision bid(int credits) {
+        return new Decision(MessageParser.Action.BID, Integer.toString(credits));
+    }
+
+    public static Decision fold() {
+        return FOLD;
+    }
+
+    /**
+     * Discards cards and draws new ones.
+     *
+     * @param cards Indices (0 to 4) of at most 4 cards to discard.
+     * @return Decision to draw.
+     */
+    public static Decision draw(int... cards) {
+        if (cards.length == 0)
+            return KEEP_CARDS;
+
+        StringJoiner joiner = new StringJoiner(" ");
+
+        for (int card: cards)
+            joiner.add(Integer.toString(card));
+
+        return new Decision(MessageParser.Action.DRAW, joiner.toString());
+    }
+
+    /**
+     * Discards cards given as typed by the player, e.g. "0 2 3".
+     *
+     * @param cards Indices of the cards separated with spaces, empty to keep all cards.
+     * @return Decision to draw.
+     */
+    public static Decision draw(String cards) {
+        return new Decision(MessageParser.Action.DRAW, cards.trim());
+    }
+
+    /**
+     * Asks the server for the hand instead of deciding, the server repeats its request afterwards.
+     *
+     * @return Request for the hand.
+     */
+    public static Decision hand() {
+        return HAND;
+    }
+
+    /**
+     * Asks the server for the evaluation of the hand instead of deciding, the server repeats its request afterwards.
+     *
+     * @return Request for the evaluation.
+     */
+    public static Decision evaluation() {
+        return EVALUATION;
+    }
+
+    /**
+     * Asks the server for the credit instead of deciding, the server repeats its request afterwards.
+     *
+     * @return Request for the credit.
+     */
+    public static Decision credit() {
+        return CREDIT;
+    }
+
+    /**
+     * Plays the next game.
+     *
+     * @return Decision to play on.
+     */
+    public static Decision playOn() {
+        return PLAY_ON;
+    }
+
+    /**
+     * Leaves the table and closes the connection.
+     *
+     * @return Decision to leave.
+     */
+    public static Decision leave() {
+        return LEAVE;
+    }
+
+    public MessageParser.Action getAction() {
+        return action;
+    }
+
+    public String getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public String toString() {
+        return MessageCodec.code(action) + "/" + parameters;
+    }
+}
@@ -0,0 +1,430 @@
+package pl.edu.agh.kis.pz1;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class BinaryMessageCodec converts messages between {@link Message} and the compact binary format.
+ * Binary message starts with a one-byte opcode: its highest bit is always set (text messages start with a digit
+ * or minus, so frames of both formats can be told apart), the next bit marks parameters sent as plain UTF-8
+ * and the low bits hold the ordinal of the action. Game and player IDs follow as zigzag varints,
+ * then parameters in the form depending on the action:
+ * <ul>
+ *     <li>cards of {@link MessageParser.Action#HAND} as one byte each, see {@link Card#code()},</li>
+ *     <li>value of {@link MessageParser.Action#EVAL} as one byte with the ordinal of {@link HandEvaluator.HandValues},</li>
+ *     <li>numbers of BID, END, DRAW, CREDIT and PRIZE as zigzag varints,</li>
+ *     <li>parameters of other actions as UTF-8.</li>
+ * </ul>
+ * Parameters that do not have the expected form, e.g. incorrect input of the player, are sent as UTF-8.
+ * Decoding restores parameters in the text form, so code handling messages does not depend on the format.
+ * Binary format is used only if both sides agree on it, see {@link #NEGOTIATION}.
+ *
+ * @author Kacper Cienkosz
+ */
+public final class BinaryMessageCodec {
+    /**
+     * Parameter of {@link MessageParser.Action#ACCEPT}. Sent by the server it offers the binary format,
+     * sent back by the client it switches messages of the connection to the binary format.
+     */
+    public static final String NEGOTIATION = "bin";
+
+    private static final int BINARY_FLAG = 0x80;
+    private static final int TEXT_PARAMETERS_FLAG = 0x40;
+    private static final int ACTION_MASK = 0x3F;
+    /**
+     * Longest possible varint of an int.
+     */
+    private static final int MAX_VARINT_LENGTH = 5;
+    /**
+     * Longest possible text of a number decoded from a varint, with a separator.
+     */
+    private static final int MAX_NUMBER_TEXT_LENGTH = 12;
+
+    private enum Format { TEXT, NUMBERS, CARDS, HAND_VALUE }
+
+    private static final MessageParser.Action[] ACTIONS = MessageParser.Action.values();
+    private static final Format[] FORMATS = new Format[ACTIONS.length];
+    private static final String[] RANK_NAMES = names(Card.Rank.values());
+    private static final String[] SUIT_NAMES = names(Card.Suit.values());
+    private static final String CARD_SEPARATOR = " of ";
+    /**
+     * UTF-8 lines of cards in the text format, indexed by card code.
+     */
+    private static final byte[][] CARD_LINES = new byte[Card.NUMBER_OF_CARDS][];
+    private static final int MAX_CARD_LINE_LENGTH;
+    private static final String[] HAND_VALUE_NAMES = names(HandEvaluator.HandValues.values());
+    private static final int MAX_HAND_VALUE_NAME_LENGTH;
+
+    static {
+        for (MessageParser.Action action : ACTIONS)
+            FORMATS[action.ordinal()] = switch (action) {
+                case BID, END, DRAW, CREDIT, PRIZE -> Format.NUMBERS;
+                case HAND -> Format.CARDS;
+                case EVAL -> Format.HAND_VALUE;
+                default -> Format.TEXT;
+            };
+
+        int longest = 0;
+
+        for (int code = 0; code < Card.NUMBER_OF_CARDS; code++) {
+            CARD_LINES[code] = (Card.of(code) + "\n").getBytes(StandardCharsets.UTF_8);
+            longest = Math.max(longest, CARD_LINES[code].length);
+        }
+
+        MAX_CARD_LINE_LENGTH = longest;
+        longest = 0;
+
+        for (String name : HAND_VALUE_NAMES)
+            longest = Math.max(longest, name.length());
+
+        MAX_HAND_VALUE_NAME_LENGTH = longest;
+    }
+
+    private BinaryMessageCodec() {
+    }
+
+    private static String[] names(Object[] values) {
+        String[] names = new String[values.length];
+
+        for (int i = 0; i < values.length; i++)
+            names[i] = values[i].toString();
+
+        return names;
+    }
+
+    /**
+     * Checks format of the message stored in the buffer.
+     *
+     * @param buffer Buffer containing the message.
+     * @param offset Index of the first byte of the message.
+     * @param length Length of the message in bytes.
+     * @return <code>true</code> if the message is binary, <code>false</code> if it is text.
+     */
+    public static boolean isBinary(ByteBuffer buffer, int offset, int length) {
+        return length > 0 && (buffer.get(offset) & BINARY_FLAG) != 0;
+    }
+
+    /**
+     * Decodes binary message stored in the buffer. Position of the buffer is not changed.
+     * Like {@link MessageCodec#decode}, malformed message gives the invalid message template.
+     *
+     * @param buffer Buffer containing the message.
+     * @param offset Index of the first byte of the message.
+     * @param length Length of the message in bytes.
+     * @param into Message to fill.
+     * @return <code>true</code> if message was valid, <code>false</code> otherwise.
+     */
+    public static boolean decode(ByteBuffer buffer, int offset, int length, Message into) {
+        int end = offset + length;
+
+        if (!isBinary(buffer, offset, length) || (buffer.get(offset) & ACTION_MASK) >= ACTIONS.length) {
+            into.setInvalid();
+            return false;
+        }
+
+        int opcode = buffer.get(offset);
+        long gameId = readVarint(buffer, offset + 1, end);
+        long playerId = gameId < 0 ? -1 : readVarint(buffer, offset + 1 + varintLength(gameId), end);
+        int position = offset + 1 + varintLength(gameId) + varintLength(playerId);
+
+        if (playerId < 0) {
+            into.setInvalid();
+            return false;
+        }
+
+        into.set(unzigzag(gameId), unzigzag(playerId), ACTIONS[opcode & ACTION_MASK]);
+
+        Format format = (opcode & TEXT_PARAMETERS_FLAG) != 0 ? Format.TEXT : FORMATS[opcode & ACTION_MASK];
+        boolean valid = switch (format) {
+            case TEXT -> {
+                into.setParameters(buffer, position, end - position);
+                yield true;
+            }
+            case NUMBERS -> decodeNumbers(buffer, position, end, into);
+            case CARDS -> decodeCards(buffer, position, end, into);
+            case HAND_VALUE -> decodeHandValue(buffer, position, end, into);
+        };
+
+        if (!valid)
+            into.setInvalid();
+
+        return valid;
+    }
+
+    private static boolean decodeNumbers(ByteBuffer buffer, int position, int end, Message into) {
+        byte[] text = into.parametersBuffer((end - position) * MAX_NUMBER_TEXT_LENGTH);
+        int length = 0;
+
+        while (position < end) {
+            long varint = readVarint(buffer, position, end);
+
+            if (varint < 0)
+                return false;
+
+            position += varintLength(varint);
+
+            if (length > 0)
+                text[length++] = ' ';
+
+            length = putDecimal(unzigzag(varint), text, length);
+        }
+
+        into.setParametersLength(length);
+        return true;
+    }
+
+    private static boolean decodeCards(ByteBuffer buffer, int position, int end, Message into) {
+        byte[] text = into.parametersBuffer((end - position) * MAX_CARD_LINE_LENGTH);
+        int length = 0;
+
+        for (; position < end; position++) {
+            int code = buffer.get(position);
+
+            if (code < 0 || code >= Card.NUMBER_OF_CARDS)
+                return false;
+
+            byte[] line = CARD_LINES[code];
+            System.arraycopy(line, 0, text, length, line.length);
+            length += line.length;
+        }
+
+        into.setParametersLength(length);
+        return true;
+    }
+
+    private static boolean decodeHandValue(ByteBuffer buffer, int position, int end, Message into) {
+        if (position == end)
+            return true;
+
+        int ordinal = buffer.get(position);
+
+        if (end - position != 1 || ordinal < 0 || ordinal >= HAND_VALUE_NAMES.length)
+            return false;
+
+        byte[] text = into.parametersBuffer(MAX_HAND_VALUE_NAME_LENGTH);
+        String name = HAND_VALUE_NAMES[ordinal];
+
+        for (int i = 0; i < name.length(); i++)
+            text[i] = (byte) name.charAt(i);
+
+        into.setParametersLength(name.length());
+        return true;
+    }
+
+    /**
+     * Encodes message in the binary format at the position of the buffer and moves the position after it.
+     *
+     * @param gameId ID of the game related to the message.
+     * @param playerId ID of the player receiving or sending the message.
+     * @param action Type of action.
+     * @param parameters Parameters for the action in the text form.
+     * @param out Buffer with at least {@link #maxLength(CharSequence)} bytes remaining.
+     */
+    public static void encode(int gameId, int playerId, MessageParser.Action action, CharSequence parameters, ByteBuffer out) {
+        int start = out.position();
+        out.put((byte) (BINARY_FLAG | action.ordinal()));
+        putVarint(zigzag(gameId), out);
+        putVarint(zigzag(playerId), out);
+
+        int parametersStart = out.position();
+        boolean encoded = switch (FORMATS[action.ordinal()]) {
+            case TEXT -> false;
+            case NUMBERS -> encodeNumbers(parameters, out);
+            case CARDS -> encodeCards(parameters, out);
+            case HAND_VALUE -> encodeHandValue(parameters, out);
+        };
+
+        if (!encoded) {
+            out.position(parametersStart);
+            out.put(start, (byte) (BINARY_FLAG | TEXT_PARAMETERS_FLAG | action.ordinal()));
+            MessageCodec.putText(parameters, out);
+        }
+    }
+
+    /**
+     * Encodes message in the binary format at the position of the buffer and moves the position after it.
+     *
+     * @param message Message to encode.
+     * @param out Buffer with enough bytes remaining.
+     */
+    public static void encode(Message message, ByteBuffer out) {
+        encode(message.getGameId(), message.getPlayerId(), message.getActionType(), message.getActionParameters(), out);
+    }
+
+    /**
+     * Returns upper bound of the encoded length of a message with the given parameters.
+     *
+     * @param parameters Parameters for the action.
+     * @return Maximal number of bytes.
+     */
+    public static int maxLength(CharSequence parameters) {
+        return 1 + 2 * MAX_VARINT_LENGTH + 3 * parameters.length();
+    }
+
+    /**
+     * Writes numbers separated with single spaces, written the way {@link Integer#toString(int)} does.
+     * Other forms would not be restored exactly, so they are left to the text fallback.
+     */
+    private static boolean encodeNumbers(CharSequence parameters, ByteBuffer out) {
+        int length = parameters.length();
+        int i = 0;
+
+        while (i < length) {
+            if (i > 0 && parameters.charAt(i++) != ' ')
+                return false;
+
+            boolean negative = i < length && parameters.charAt(i) == '-';
+            int digitsStart = negative ? i + 1 : i;
+            int digitsEnd = digitsStart;
+            long value = 0;
+
+            while (digitsEnd < length && digitsEnd - digitsStart <= 10) {
+                int digit = parameters.charAt(digitsEnd) - '0';
+
+                if (digit < 0 || digit > 9)
+                    break;
+
+                value = value * 10 + digit;
+                digitsEnd++;
+            }
+
+            int digits = digitsEnd - digitsStart;
+            value = negative ? -value : value;
+
+            if (digits == 0 || digits > 10 || (digits > 1 && parameters.charAt(digitsStart) == '0')
+                    || (negative && value == 0) || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+                return false;
+
+            putVarint(zigzag((int) value), out);
+            i = digitsEnd;
+        }
+
+        return true;
+    }
+
+    private static boolean encodeCards(CharSequence parameters, ByteBuffer out) {
+        int length = parameters.length();
+        int i = 0;
+
+        while (i < length) {
+            int rank = match(RANK_NAMES, parameters, i);
+
+            if (rank < 0)
+                return false;
+
+            i += RANK_NAMES[rank].length();
+
+            if (!matches(CARD_SEPARATOR, parameters, i))
+                return false;
+
+            i += CARD_SEPARATOR.length();
+            int suit = match(SUIT_NAMES, parameters, i);
+
+            if (suit < 0)
+                return false;
+
+            i += SUIT_NAMES[suit].length();
+
+            if (i == length || parameters.charAt(i++) != '\n')
+                return false;
+
+            out.put((byte) Card.code(rank, suit));
+        }
+
+        return true;
+    }
+
+    private static boolean encodeHandValue(CharSequence parameters, ByteBuffer out) {
+        if (parameters.length() == 0)
+            return true;
+
+        for (int i = 0; i < HAND_VALUE_NAMES.length; i++)
+            if (HAND_VALUE_NAMES[i].length() == parameters.length() && matches(HAND_VALUE_NAMES[i], parameters, 0)) {
+                out.put((byte) i);
+                return true;
+            }
+
+        return false;
+    }
+
+    private static int match(String[] names, CharSequence text, int from) {
+        for (int i = 0; i < names.length; i++)
+            if (matches(names[i], text, from))
+                return i;
+
+        return -1;
+    }
+
+    private static boolean matches(String name, CharSequence text, int from) {
+        if (text.length() - from < name.length())
+            return false;
+
+        for (int i = 0; i < name.length(); i++)
+            if (text.charAt(from + i) != name.charAt(i))
+                return false;
+
+        return true;
+    }
+
+    private static int zigzag(int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    private static int unzigzag(long varint) {
+        int value = (int) varint;
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private static void putVarint(int value, ByteBuffer out) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+
+        out.put((byte) value);
+    }
+
+    /**
+     * Reads unsigned varint.
+     *
+     * @return Value in the low 32 bits and its length in bytes in bits 32-35, <code>-1</code> if varint is malformed.
+     */
+    private static long readVarint(ByteBuffer buffer, int from, int end) {
+        long value = 0;
+
+        for (int i = 0; i < MAX_VARINT_LENGTH && from + i < end; i++) {
+            int b = buffer.get(from + i);
+            value |= (long) (b & 0x7F) << (7 * i);
+
+            if ((b & 0x80) == 0)
+                return value > 0xFFFFFFFFL ? -1 : value | (long) (i + 1) << 32;
+        }
+
+        return -1;
+    }
+
+    private static int varintLength(long varint) {
+        return (int) (varint >>> 32);
+    }
+
+    private static int putDecimal(int value, byte[] out, int index) {
+        long magnitude = value;
+
+        if (value < 0) {
+            out[index++] = '-';
+            magnitude = -magnitude;
+        }
+
+        int digits = 1;
+
+        for (long bound = 10; digits < 10 && magnitude >= bound; bound *= 10)
+            digits++;
+
+        for (int i = index + digits - 1; i >= index; i--) {
+            out[i] = (byte) ('0' + magnitude % 10);
+            magnitude /= 10;
+        }
+
+        return index + digits;
+    }
+}
@@ -0,0 +1,246 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class EventLoopTimer keeps tasks scheduled to run on the event loop thread after a delay.
+ * Event loop selects no longer than {@link #millisToNext()} and then calls {@link #runExpired()},
+ * so waiting for a task never blocks handling of the sockets. Not thread-safe, used only by the event loop thread.
+ * <p>
+ * Timer is a hashed wheel: time is divided into ticks and every task is put into the bucket of the tick
+ * its deadline falls in, wrapping around the wheel together with the number of rounds left. Scheduling
+ * and cancelling take constant time however many tasks are pending, e.g. decision deadlines of thousands of tables.
+ * Tasks run at the end of their tick, so they may be late by up to one tick. Tasks without delay skip the wheel.
+ *
+ * @author Kacper Cienkosz
+ */
+class EventLoopTimer {
+    /**
+     * Task scheduled with {@link #schedule(long, Runnable)}.
+     */
+    static final class Timeout {
+        private final Runnable task;
+        private long remainingRounds;
+        private boolean cancelled = false;
+        /**
+         * Bucket the task is linked in, <code>null</code> for tasks without delay.
+         */
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        /**
+         * Cancels the task. Task is removed from the wheel at once.
+         */
+        public void cancel() {
+            if (cancelled)
+                return;
+
+            cancelled = true;
+
+            if (bucket != null)
+                bucket.remove(this);
+        }
+    }
+
+    /**
+     * Tasks of the ticks falling into one slot of the wheel, linked in the order they were scheduled.
+     */
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.previous = tail;
+
+            if (tail == null)
+                head = timeout;
+            else
+                tail.next = timeout;
+
+            tail = timeout;
+            pending++;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.previous == null)
+                head = timeout.next;
+            else
+                timeout.previous.next = timeout.next;
+
+            if (timeout.next == null)
+                tail = timeout.previous;
+            else
+                timeout.next.previous = timeout.previous;
+
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+            pending--;
+        }
+
+        /**
+         * Runs tasks whose last round has come, the others are put back for the next turn of the wheel.
+         * Tasks are unlinked first, so tasks scheduled or cancelled by the ones being run do not disturb the pass.
+         */
+        void expire() {
+            Timeout timeout = head;
+            head = null;
+            tail = null;
+
+            for (Timeout unlinked = timeout; unlinked != null; unlinked = unlinked.next) {
+                unlinked.bucket = null;
+                pending--;
+            }
+
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.previous = null;
+                timeout.next = null;
+
+                // Task may have been cancelled by a task run before it.
+                if (!timeout.cancelled) {
+                    if (timeout.remainingRounds > 0) {
+                        timeout.remainingRounds--;
+                        add(timeout);
+                    }
+                    else
+                        timeout.task.run();
+                }
+
+                timeout = next;
+            }
+        }
+    }
+
+    static final long DEFAULT_TICK_MILLIS = 10;
+    static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startTime = System.nanoTime();
+    /**
+     * Number of the next tick to expire. Tick <code>n</code> expires when <code>n</code> ticks have passed since the start.
+     */
+    private long tick = 0;
+    /**
+     * Number of tasks in the wheel.
+     */
+    private int pending = 0;
+    /**
+     * Tasks without delay, run in the next call of {@link #runExpired()}.
+     */
+    private final ArrayDeque<Timeout> immediate = new ArrayDeque<>();
+
+    EventLoopTimer() {
+        this(DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Creates timer.
+     *
+     * @param tickMillis Duration of one tick in milliseconds, precision of the timer.
+     * @param wheelSize Number of buckets, rounded up to a power of two.
+     */
+    EventLoopTimer(long tickMillis, int wheelSize) {
+        if (tickMillis <= 0 || wheelSize <= 0)
+            throw new IllegalArgumentException("Tick and wheel size must be positive.");
+
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int size = 1;
+
+        while (size < wheelSize)
+            size <<= 1;
+
+        this.wheel = new Bucket[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++)
+            wheel[i] = new Bucket();
+    }
+
+    /**
+     * Schedules task. Tasks of the same tick run in the order they were scheduled.
+     *
+     * @param delayMillis Delay in milliseconds, <code>0</code> runs the task in the next iteration of the event loop.
+     * @param task Task to run.
+     * @return Handle that allows to cancel the task.
+     */
+    public Timeout schedule(long delayMillis, Runnable task) {
+        Timeout timeout = new Timeout(task);
+
+        if (delayMillis <= 0) {
+            immediate.add(timeout);
+            return timeout;
+        }
+
+        long elapsed = System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        // First tick that ends at or after the deadline, never one that has already expired.
+        long deadlineTick = Math.max((elapsed + tickNanos - 1) / tickNanos, tick);
+
+        timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+        wheel[(int) (deadlineTick & mask)].add(timeout);
+
+        return timeout;
+    }
+
+    /**
+     * Returns how long the event loop may wait for sockets. Loop sleeps until the first tick with tasks
+     * in its bucket, looking at most one turn of the wheel ahead.
+     *
+     * @return Milliseconds to the nearest tick with tasks, <code>0</code> if a task is already due
+     * and <code>-1</code> if no task is scheduled.
+     */
+    public long millisToNext() {
+        while (!immediate.isEmpty() && immediate.peek().cancelled)
+            immediate.poll();
+
+        if (!immediate.isEmpty())
+            return 0;
+
+        if (pending == 0)
+            return -1;
+
+        long nextTick = tick;
+
+        while (nextTick < tick + mask && wheel[(int) (nextTick & mask)].head == null)
+            nextTick++;
+
+        long nanos = startTime + nextTick * tickNanos - System.nanoTime();
+
+        // Rounded up, so the loop does not wake up just before the tick.
+        return nanos <= 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    }
+
+    /**
+     * Runs tasks without delay scheduled before the call and tasks of all ticks that have passed.
+     * Tasks scheduled by them with no delay wait for the next call.
+     */
+    public void runExpired() {
+        for (int count = immediate.size(); count > 0; count--) {
+            Timeout timeout = immediate.poll();
+
+            if (!timeout.cancelled)
+                timeout.task.run();
+        }
+
+        long elapsedTicks = (System.nanoTime() - startTime) / tickNanos;
+
+        while (tick <= elapsedTicks && pending > 0) {
+            Bucket bucket = wheel[(int) (tick & mask)];
+            // Tasks scheduled while the bucket expires go to the following ticks.
+            tick++;
+            bucket.expire();
+        }
+
+        // Empty wheel just moves on.
+        tick = Math.max(tick, elapsedTicks + 1);
+    }
+}
@@ -0,0 +1,124 @@
+package pl.edu.agh.kis.pz1;
+
+import pl.edu.agh.kis.pz1.exceptions.InvalidFrameException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class FrameDecoder splits bytes received from one connection into frames built by {@link FrameEncoder}.
+ * Bytes are accumulated in a buffer kept for the whole connection, so one read can deliver
+ * part of a frame, exactly one frame or several frames.
+ * <p>
+ * Usage: call {@link #readFrom(ReadableByteChannel)} when the channel is readable,
+ * then {@link #nextFrame()} until it returns <code>null</code>.
+ *
+ * @author Kacper Cienkosz
+ */
+public class FrameDecoder {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Received bytes, in read mode between {@link #readFrom(ReadableByteChannel)} calls.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY).flip();
+
+    /**
+     * Reads available bytes from the channel.
+     *
+     * @param channel Channel to read from.
+     * @return Number of bytes read, <code>-1</code> if the channel has reached end of stream.
+     * @throws IOException If reading fails.
+     */
+    public int readFrom(ReadableByteChannel channel) throws IOException {
+        buffer.compact();
+
+        try {
+            if (!buffer.hasRemaining())
+                grow();
+
+            return channel.read(buffer);
+        }
+        finally {
+            buffer.flip();
+        }
+    }
+
+    /**
+     * Takes next complete frame out of the buffer.
+     * Binary messages (see {@link BinaryMessageCodec}) are returned converted to the text format.
+     *
+     * @return Payload of the frame, <code>null</code> if no complete frame has been received yet.
+     * @throws InvalidFrameException If the frame length is negative or greater than {@link FrameEncoder#MAX_PAYLOAD_BYTES}.
+     */
+    public String nextFrame() throws InvalidFrameException {
+        int length = nextFrameLength();
+
+        if (length < 0)
+            return null;
+
+        int start = buffer.position() + FrameEncoder.HEADER_BYTES;
+
+        if (BinaryMessageCodec.isBinary(buffer, start, length)) {
+            Message message = new Message();
+            BinaryMessageCodec.decode(buffer, start, length, message);
+            buffer.position(start + length);
+
+            return message.toString();
+        }
+
+        String payload = new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        buffer.position(start + length);
+
+        return payload;
+    }
+
+    /**
+     * Takes next complete frame out of the buffer and decodes it without allocating,
+     * with {@link BinaryMessageCodec} or {@link MessageCodec} depending on the format of the message.
+     *
+     * @param into Message to fill.
+     * @return <code>true</code> if a frame has been decoded, <code>false</code> if no complete frame has been received yet.
+     * @throws InvalidFrameException If the frame length is negative or greater than {@link FrameEncoder#MAX_PAYLOAD_BYTES}.
+     */
+    public boolean nextMessage(Message into) throws InvalidFrameException {
+        int length = nextFrameLength();
+
+        if (length < 0)
+            return false;
+
+        int start = buffer.position() + FrameEncoder.HEADER_BYTES;
+
+        if (BinaryMessageCodec.isBinary(buffer, start, length))
+            BinaryMessageCodec.decode(buffer, start, length, into);
+        else
+            MessageCodec.decode(buffer, start, length, into);
+
+        buffer.position(start + length);
+
+        return true;
+    }
+
+    private int nextFrameLength() throws InvalidFrameException {
+        if (buffer.remaining() < FrameEncoder.HEADER_BYTES)
+            return -1;
+
+        int length = buffer.getInt(buffer.position());
+
+        if (length < 0 || length > FrameEncoder.MAX_PAYLOAD_BYTES)
+            throw new InvalidFrameException("Invalid frame length: " + length + ".");
+
+        return buffer.remaining() < FrameEncoder.HEADER_BYTES + length ? -1 : length;
+    }
+
+    private void grow() {
+        // Buffer is in write mode here; it never grows beyond one maximal frame with its header.
+        int capacity = Math.min(buffer.capacity() * 2, FrameEncoder.HEADER_BYTES + FrameEncoder.MAX_PAYLOAD_BYTES);
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+}
@@ -0,0 +1,98 @@
+package pl.edu.agh.kis.pz1;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class FrameEncoder builds frames sent between server and client.
+ * Frame consists of 4-byte big endian length of the payload followed by the payload, see {@link FrameDecoder}.
+ *
+ * @author Kacper Cienkosz
+ */
+public final class FrameEncoder {
+    /**
+     * Number of bytes of the length prefix.
+     */
+    public static final int HEADER_BYTES = Integer.BYTES;
+    /**
+     * Maximal length of the payload accepted by {@link FrameDecoder}.
+     */
+    public static final int MAX_PAYLOAD_BYTES = 64 * 1024;
+
+    private FrameEncoder() {
+    }
+
+    /**
+     * Encodes message into a frame.
+     *
+     * @param message Message, see {@link MessageParser}.
+     * @return Buffer with the frame, ready to be written.
+     * @throws IllegalArgumentException If message is longer than {@link #MAX_PAYLOAD_BYTES}.
+     */
+    public static ByteBuffer encode(String message) {
+        byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+
+        if (payload.length > MAX_PAYLOAD_BYTES)
+            throw new IllegalArgumentException("Message is too long: " + payload.length + " bytes.");
+
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        frame.putInt(payload.length).put(payload).flip();
+
+        return frame;
+    }
+
+    /**
+     * Encodes message into a frame at the position of the buffer and moves the position after it.
+     *
+     * @param gameId ID of the game related to the message.
+     * @param playerId ID of the player receiving or sending the message.
+     * @param action Type of action.
+     * @param parameters Parameters for the action.
+     * @param out Buffer with at least {@link #maxFrameLength(CharSequence)} bytes remaining.
+     * @throws IllegalArgumentException If message is longer than {@link #MAX_PAYLOAD_BYTES}.
+     */
+    public static void encode(int gameId, int playerId, MessageParser.Action action, CharSequence parameters, ByteBuffer out) {
+        encode(gameId, playerId, action, parameters, false, out);
+    }
+
+    /**
+     * Encodes message into a frame at the position of the buffer and moves the position after it.
+     *
+     * @param gameId ID of the game related to the message.
+     * @param playerId ID of the player receiving or sending the message.
+     * @param action Type of action.
+     * @param parameters Parameters for the action.
+     * @param binary <code>true</code> to encode with {@link BinaryMessageCodec}, <code>false</code> with {@link MessageCodec}.
+     * @param out Buffer with at least {@link #maxFrameLength(CharSequence)} bytes remaining.
+     * @throws IllegalArgumentException If message is longer than {@link #MAX_PAYLOAD_BYTES}.
+     */
+    public static void encode(int gameId, int playerId, MessageParser.Action action, CharSequence parameters,
+                              boolean binary, ByteBuffer out) {
+        int start = out.position();
+        out.position(start + HEADER_BYTES);
+
+        if (binary)
+            BinaryMessageCodec.encode(gameId, playerId, action, parameters, out);
+        else
+            MessageCodec.encode(gameId, playerId, action, parameters, out);
+
+        int length = out.position() - start - HEADER_BYTES;
+
+        if (length > MAX_PAYLOAD_BYTES) {
+            out.position(start);
+            throw new IllegalArgumentException("Message is too long: " + length + " bytes.");
+        }
+
+        out.putInt(start, length);
+    }
+
+    /**
+     * Returns upper bound of the frame length of a message with the given parameters in either format.
+     *
+     * @param parameters Parameters for the action.
+     * @return Maximal number of bytes.
+     */
+    public static int maxFrameLength(CharSequence parameters) {
+        return HEADER_BYTES + MessageCodec.maxLength(parameters);
+    }
+}
@@ -0,0 +1,157 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ClosedChannelException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Class LoopbackChannel is one end of an in-process connection, used instead of a socket to run the server
+ * and its clients in one JVM without the network stack. Bytes written to one end are copied into a lock-free queue
+ * of the other end and read from there, so frames go through the same encoders and decoders as over TCP.
+ * <p>
+ * Writing never blocks and always takes all bytes. Each end has one reading thread, which is told about
+ * new data by the listener of the end: listener runs once when data arrives after the reader has drained the queue,
+ * i.e. after {@link #read(ByteBuffer)} has returned <code>0</code>, and when the other end is closed.
+ * Read returns <code>-1</code> once the other end is closed and all its data has been read.
+ *
+ * @author Kacper Cienkosz
+ */
+public final class LoopbackChannel implements ByteChannel {
+    private final Queue<ByteBuffer> inbox = new ConcurrentLinkedQueue<>();
+    /**
+     * Whether the listener has been told about data the reader has not drained yet.
+     */
+    private final AtomicBoolean signalled = new AtomicBoolean(false);
+    private volatile boolean open = true;
+    private volatile Runnable listener = () -> { };
+    private LoopbackChannel peer;
+
+    private LoopbackChannel() {
+    }
+
+    /**
+     * Opens connected pair of channels.
+     *
+     * @return Two ends of the connection, e.g. the server one and the client one.
+     */
+    public static LoopbackChannel[] openPair() {
+        LoopbackChannel first = new LoopbackChannel();
+        LoopbackChannel second = new LoopbackChannel();
+        first.peer = second;
+        second.peer = first;
+
+        return new LoopbackChannel[] { first, second };
+    }
+
+    /**
+     * Sets task telling the reader of this end that it has something to read. Task runs on the writing thread,
+     * so it should only hand the channel over to the reader, e.g. queue it and wake up its selector.
+     * Data that has arrived before the listener was set is not announced, the reader should read once after setting it.
+     *
+     * @param listener Task run when data arrives or the other end is closed.
+     */
+    public void setListener(Runnable listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Reads bytes written by the other end, as many as fit into the buffer.
+     *
+     * @param dst Buffer the bytes are put into.
+     * @return Number of bytes read, <code>0</code> if there is nothing to read and <code>-1</code> if the other end
+     * has been closed and everything it has written has been read.
+     * @throws ClosedChannelException If this end is closed.
+     */
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!open)
+            throw new ClosedChannelException();
+
+        int read = 0;
+
+        while (dst.hasRemaining()) {
+            ByteBuffer chunk = inbox.peek();
+
+            if (chunk == null) {
+                signalled.set(false);
+                // Data written before the flag was cleared has not been announced.
+                chunk = inbox.peek();
+
+                if (chunk == null)
+                    break;
+            }
+
+            int length = Math.min(chunk.remaining(), dst.remaining());
+            dst.put(dst.position(), chunk, chunk.position(), length);
+            dst.position(dst.position() + length);
+            chunk.position(chunk.position() + length);
+            read += length;
+
+            if (!chunk.hasRemaining())
+                inbox.poll();
+        }
+
+        if (read == 0 && !peer.open && inbox.isEmpty())
+            return -1;
+
+        return read;
+    }
+
+    /**
+     * Copies all remaining bytes of the buffer to the other end.
+     *
+     * @param src Buffer with bytes to write.
+     * @return Number of bytes written.
+     * @throws ClosedChannelException If this end is closed.
+     * @throws IOException If the other end is closed.
+     */
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (!open)
+            throw new ClosedChannelException();
+
+        if (!peer.open)
+            throw new IOException("Connection closed by peer.");
+
+        int length = src.remaining();
+
+        if (length == 0)
+            return 0;
+
+        ByteBuffer copy = ByteBuffer.allocate(length);
+        copy.put(src).flip();
+        peer.inbox.add(copy);
+        peer.signal();
+
+        return length;
+    }
+
+    private void signal() {
+        if (signalled.compareAndSet(false, true))
+            listener.run();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Closes this end. Data not read yet is dropped, the other end reads what it has received and then the end of stream.
+     */
+    @Override
+    public void close() {
+        if (!open)
+            return;
+
+        open = false;
+        inbox.clear();
+        // Reader of the other end must see the end of stream even if it has not drained its data yet.
+        peer.signalled.set(false);
+        peer.signal();
+    }
+}
@@ -0,0 +1,142 @@
+package pl.edu.agh.kis.pz1;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class Message is a mutable, reusable form of a protocol message, see {@link MessageParser} for the format.
+ * IDs and action are kept as primitives, action parameters as raw UTF-8 bytes,
+ * so decoding with {@link MessageCodec} into an existing message allocates nothing.
+ * String with parameters is created only when {@link #getActionParameters()} is called.
+ *
+ * @author Kacper Cienkosz
+ */
+public class Message {
+    private static final int INITIAL_PARAMETERS_CAPACITY = 128;
+
+    private int gameId = -1;
+    private int playerId = -1;
+    private MessageParser.Action action = MessageParser.Action.INVALID;
+    private byte[] parameters = new byte[INITIAL_PARAMETERS_CAPACITY];
+    private int parametersLength = 0;
+    /**
+     * Parameters as string, created on first request.
+     */
+    private String parametersString = "";
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public MessageParser.Action getActionType() {
+        return action;
+    }
+
+    /**
+     * Returns action parameters as string. Allocates a new string once per decoded message.
+     *
+     * @return Action parameters, empty if there are none.
+     */
+    public String getActionParameters() {
+        if (parametersString == null)
+            parametersString = new String(parameters, 0, parametersLength, StandardCharsets.UTF_8);
+
+        return parametersString;
+    }
+
+    /**
+     * Parses action parameters as a single decimal integer without creating a string.
+     *
+     * @return Value of the parameters.
+     * @throws NumberFormatException If parameters are not a single integer.
+     */
+    public int getIntParameter() {
+        int i = parametersLength > 0 && parameters[0] == '-' ? 1 : 0;
+
+        if (i == parametersLength || parametersLength - i > 10)
+            throw new NumberFormatException("Incorrect number: " + getActionParameters() + ".");
+
+        long value = 0;
+
+        for (; i < parametersLength; i++) {
+            int digit = parameters[i] - '0';
+
+            if (digit < 0 || digit > 9)
+                throw new NumberFormatException("Incorrect number: " + getActionParameters() + ".");
+
+            value = value * 10 + digit;
+        }
+
+        value = parameters[0] == '-' ? -value : value;
+
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw new NumberFormatException("Incorrect number: " + getActionParameters() + ".");
+
+        return (int) value;
+    }
+
+    int getParametersLength() {
+        return parametersLength;
+    }
+
+    byte[] getParameterBytes() {
+        return parameters;
+    }
+
+    void set(int gameId, int playerId, MessageParser.Action action) {
+        this.gameId = gameId;
+        this.playerId = playerId;
+        this.action = action;
+        parametersLength = 0;
+        parametersString = "";
+    }
+
+    void setParameters(ByteBuffer source, int index, int length) {
+        if (parameters.length < length)
+            parameters = new byte[Math.max(length, parameters.length * 2)];
+
+        source.get(index, parameters, 0, length);
+        parametersLength = length;
+        parametersString = length == 0 ? "" : null;
+    }
+
+    /**
+     * Returns array for parameters written in place, see {@link #setParametersLength(int)}.
+     *
+     * @param capacity Number of bytes that will be written at most.
+     * @return Array with at least the given capacity.
+     */
+    byte[] parametersBuffer(int capacity) {
+        if (parameters.length < capacity)
+            parameters = new byte[Math.max(capacity, parameters.length * 2)];
+
+        return parameters;
+    }
+
+    void setParametersLength(int length) {
+        parametersLength = length;
+        parametersString = length == 0 ? "" : null;
+    }
+
+    void setParameters(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        setParameters(ByteBuffer.wrap(bytes), 0, bytes.length);
+        parametersString = value;
+    }
+
+    /**
+     * Sets message to template invalid message, the same as {@link MessageParser#setInvalidMessageTemplate()}.
+     */
+    public void setInvalid() {
+        set(-1, -1, MessageParser.Action.INVALID);
+    }
+
+    @Override
+    public String toString() {
+        return gameId + "/" + playerId + "/" + MessageCodec.code(action) + "/" + getActionParameters();
+    }
+}
@@ -0,0 +1,249 @@
+package pl.edu.agh.kis.pz1;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class MessageCodec converts messages in the text format (see {@link MessageParser}) directly between
+ * bytes and {@link Message}, without splitting strings. Decoding reads the buffer with absolute gets and
+ * fills a reusable message, encoding writes into a buffer supplied by the caller.
+ *
+ * @author Kacper Cienkosz
+ */
+public final class MessageCodec {
+    private static final MessageParser.Action[] ACTIONS = MessageParser.Action.values();
+    /**
+     * Text codes of actions indexed by ordinal.
+     */
+    private static final String[] CODES = { "acc", "den", "bid", "fol", "han", "srt", "dsc", "evl", "end", "drw", "crd", "prz", "tmo", "inv" };
+    /**
+     * Three bytes of every code packed into an int, indexed by ordinal.
+     */
+    private static final int[] PACKED_CODES = new int[CODES.length];
+    private static final byte SEPARATOR = '/';
+    /**
+     * Longest possible encoding of an int: sign and ten digits.
+     */
+    private static final int MAX_INT_LENGTH = 11;
+
+    static {
+        for (int i = 0; i < CODES.length; i++)
+            PACKED_CODES[i] = CODES[i].charAt(0) << 16 | CODES[i].charAt(1) << 8 | CODES[i].charAt(2);
+    }
+
+    private MessageCodec() {
+    }
+
+    /**
+     * Returns text code of the action.
+     *
+     * @param action Action.
+     * @return Three letter code, e.g. "bid".
+     */
+    public static String code(MessageParser.Action action) {
+        return CODES[action.ordinal()];
+    }
+
+    /**
+     * Decodes message stored in the buffer. Position of the buffer is not changed.
+     * Like {@link MessageParser#parse(String)}, unknown action code gives {@link MessageParser.Action#DENY}
+     * and malformed message gives the invalid message template.
+     *
+     * @param buffer Buffer containing the message.
+     * @param offset Index of the first byte of the message.
+     * @param length Length of the message in bytes.
+     * @param into Message to fill.
+     * @return <code>true</code> if message was valid, <code>false</code> otherwise.
+     */
+    public static boolean decode(ByteBuffer buffer, int offset, int length, Message into) {
+        int end = offset + length;
+        int gameSeparator = indexOf(buffer, offset, end);
+        int playerSeparator = indexOf(buffer, gameSeparator + 1, end);
+
+        if (playerSeparator == end) {
+            into.setInvalid();
+            return false;
+        }
+
+        int actionEnd = indexOf(buffer, playerSeparator + 1, end);
+
+        try {
+            int gameId = parseInt(buffer, offset, gameSeparator);
+            int playerId = parseInt(buffer, gameSeparator + 1, playerSeparator);
+            into.set(gameId, playerId, action(buffer, playerSeparator + 1, actionEnd));
+        }
+        catch (NumberFormatException e) {
+            into.setInvalid();
+            return false;
+        }
+
+        if (actionEnd < end)
+            into.setParameters(buffer, actionEnd + 1, end - actionEnd - 1);
+
+        return true;
+    }
+
+    /**
+     * Encodes message at the position of the buffer and moves the position after it.
+     *
+     * @param gameId ID of the game related to the message.
+     * @param playerId ID of the player receiving or sending the message.
+     * @param action Type of action.
+     * @param parameters Parameters for the action.
+     * @param out Buffer with at least {@link #maxLength(CharSequence)} bytes remaining.
+     */
+    public static void encode(int gameId, int playerId, MessageParser.Action action, CharSequence parameters, ByteBuffer out) {
+        putHeader(gameId, playerId, action, out);
+        putText(parameters, out);
+    }
+
+    /**
+     * Writes characters as UTF-8 at the position of the buffer and moves the position after them.
+     *
+     * @param parameters Characters to write.
+     * @param out Buffer with at least three bytes remaining per character.
+     */
+    static void putText(CharSequence parameters, ByteBuffer out) {
+        if (!out.hasArray()) {
+            out.put(parameters.toString().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        // Heap buffer is filled through its array, which is much faster than a put per byte.
+        byte[] array = out.array();
+        int index = out.arrayOffset() + out.position();
+
+        if (out.remaining() < 3 * parameters.length())
+            throw new BufferOverflowException();
+
+        for (int i = 0; i < parameters.length(); i++) {
+            char c = parameters.charAt(i);
+
+            if (c < 0x80)
+                array[index++] = (byte) c;
+            else if (c < 0x800) {
+                array[index++] = (byte) (0xC0 | c >> 6);
+                array[index++] = (byte) (0x80 | c & 0x3F);
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < parameters.length()
+                    && Character.isLowSurrogate(parameters.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, parameters.charAt(++i));
+                array[index++] = (byte) (0xF0 | codePoint >> 18);
+                array[index++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                array[index++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                array[index++] = (byte) (0x80 | codePoint & 0x3F);
+            }
+            else if (Character.isSurrogate(c))
+                array[index++] = '?';
+            else {
+                array[index++] = (byte) (0xE0 | c >> 12);
+                array[index++] = (byte) (0x80 | c >> 6 & 0x3F);
+                array[index++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+
+        out.position(index - out.arrayOffset());
+    }
+
+    /**
+     * Encodes message at the position of the buffer and moves the position after it.
+     *
+     * @param message Message to encode.
+     * @param out Buffer with enough bytes remaining.
+     */
+    public static void encode(Message message, ByteBuffer out) {
+        putHeader(message.getGameId(), message.getPlayerId(), message.getActionType(), out);
+        out.put(message.getParameterBytes(), 0, message.getParametersLength());
+    }
+
+    /**
+     * Returns upper bound of the encoded length of a message with the given parameters.
+     *
+     * @param parameters Parameters for the action.
+     * @return Maximal number of bytes.
+     */
+    public static int maxLength(CharSequence parameters) {
+        return 2 * MAX_INT_LENGTH + 3 + 3 + 3 * parameters.length();
+    }
+
+    private static void putHeader(int gameId, int playerId, MessageParser.Action action, ByteBuffer out) {
+        putInt(gameId, out);
+        out.put(SEPARATOR);
+        putInt(playerId, out);
+        out.put(SEPARATOR);
+
+        int code = PACKED_CODES[action.ordinal()];
+        out.put((byte) (code >> 16)).put((byte) (code >> 8)).put((byte) code).put(SEPARATOR);
+    }
+
+    private static void putInt(int value, ByteBuffer out) {
+        long magnitude = value;
+
+        if (value < 0) {
+            out.put((byte) '-');
+            magnitude = -magnitude;
+        }
+
+        int digits = 1;
+
+        for (long bound = 10; digits < 10 && magnitude >= bound; bound *= 10)
+            digits++;
+
+        int position = out.position();
+
+        for (int i = position + digits - 1; i >= position; i--) {
+            out.put(i, (byte) ('0' + magnitude % 10));
+            magnitude /= 10;
+        }
+
+        out.position(position + digits);
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int end) {
+        for (int i = from; i < end; i++)
+            if (buffer.get(i) == SEPARATOR)
+                return i;
+
+        return end;
+    }
+
+    private static int parseInt(ByteBuffer buffer, int from, int to) {
+        boolean negative = from < to && buffer.get(from) == '-';
+        int i = negative ? from + 1 : from;
+
+        if (i == to || to - i > 10)
+            throw new NumberFormatException("Incorrect number.");
+
+        long value = 0;
+
+        for (; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+
+            if (digit < 0 || digit > 9)
+                throw new NumberFormatException("Incorrect number.");
+
+            value = value * 10 + digit;
+        }
+
+        value = negative ? -value : value;
+
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw new NumberFormatException("Incorrect number.");
+
+        return (int) value;
+    }
+
+    private static MessageParser.Action action(ByteBuffer buffer, int from, int to) {
+        if (to - from != 3)
+            return MessageParser.Action.DENY;
+
+        int code = (buffer.get(from) & 0xFF) << 16 | (buffer.get(from + 1) & 0xFF) << 8 | buffer.get(from + 2) & 0xFF;
+
+        for (int i = 0; i < PACKED_CODES.length; i++)
+            if (PACKED_CODES[i] == code)
+                return ACTIONS[i];
+
+        return MessageParser.Action.DENY;
+    }
+}
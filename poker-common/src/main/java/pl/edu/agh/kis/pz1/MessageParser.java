@@ -1,19 +1,20 @@
 package pl.edu.agh.kis.pz1;
 
-import java.lang.invoke.CallSite;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Class parsing messages sent between server and client.
+ * Parsed values are kept as primitives in a {@link Message}, so getters do not parse anything.
+ * Code that handles many messages should use {@link MessageCodec} with a reused {@link Message} directly.
  *
  * @author Kacper Cienkosz
  */
 public class MessageParser {
     /**
-     * Arguments parsed from messages.
+     * Values parsed from the last message.
      */
-    private final ArrayList<String> args = new ArrayList<>();
+    private final Message message = new Message();
 
     /**
      * Actions used in communication.
@@ -29,8 +30,9 @@ public class MessageParser {
      * DRAW - draw request.
      * CREDIT - client want to get credit or server sends credit.
      * PRIZE - information about the prize from the server.
+     * TIMEOUT - server announcing that time for decision is over and the action taken for the player.
      */
-    public enum Action {ACCEPT, DENY, BID, FOLD, HAND, START, DISCONNECT, EVAL, END, DRAW, CREDIT, PRIZE, INVALID}
+    public enum Action {ACCEPT, DENY, BID, FOLD, HAND, START, DISCONNECT, EVAL, END, DRAW, CREDIT, PRIZE, TIMEOUT, INVALID}
 
     MessageParser() {
 
@@ -51,19 +53,10 @@ public class MessageParser {
      * @param message Message to parse.
      */
     public void parse(String message) {
-        args.clear();
-        args.addAll(Arrays.asList(message.split("/")));
-
-        try {
-            getGameId();
-            getPlayerId();
-            getActionType();
-            getActionParameters();
-        }
-        catch (Exception e) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+
+        if (!MessageCodec.decode(ByteBuffer.wrap(bytes), 0, bytes.length, this.message))
             System.out.println("Invalid message.");
-            setInvalidMessageTemplate();
-        }
     }
 
     /**
@@ -76,28 +69,8 @@ public class MessageParser {
      * @return Message parsed to string format.
      */
     public String parse(int gameId, int playerId, Action action, String actionParameters) {
-        args.clear();
-
-        args.add(String.valueOf(gameId));
-        args.add(String.valueOf(playerId));
-
-        switch (action) {
-            case ACCEPT -> args.add("acc");
-            case DENY -> args.add("den");
-            case BID -> args.add("bid");
-            case FOLD -> args.add("fol");
-            case HAND -> args.add("han");
-            case START -> args.add("srt");
-            case DISCONNECT -> args.add("dsc");
-            case EVAL -> args.add("evl");
-            case END -> args.add("end");
-            case DRAW -> args.add("drw");
-            case CREDIT -> args.add("crd");
-            case PRIZE -> args.add("prz");
-            case INVALID -> args.add("inv");
-        }
-
-        args.add(actionParameters);
+        message.set(gameId, playerId, action);
+        message.setParameters(actionParameters);
 
         return getMessage();
     }
@@ -107,58 +80,27 @@ public class MessageParser {
      * This should be used when message is empty or invalid.
      */
     public void setInvalidMessageTemplate() {
-        parse("-1/-1/inv/");
+        message.setInvalid();
     }
 
     public int getGameId() {
-        return Integer.parseInt(args.get(0));
+        return message.getGameId();
     }
 
     public int getPlayerId() {
-        return Integer.parseInt(args.get(1));
+        return message.getPlayerId();
     }
 
     public Action getActionType() {
-        switch (args.get(2)) {
-            case "acc" -> { return Action.ACCEPT; }
-            case "bid" -> { return Action.BID; }
-            case "fol" -> { return Action.FOLD; }
-            case "han" -> { return Action.HAND; }
-            case "srt" -> { return Action.START; }
-            case "dsc" -> { return Action.DISCONNECT; }
-            case "evl" -> { return Action.EVAL; }
-            case "end" -> { return Action.END; }
-            case "drw" -> { return Action.DRAW; }
-            case "crd" -> { return Action.CREDIT; }
-            case "prz" -> { return Action.PRIZE; }
-            case "inv" -> { return Action.INVALID; }
-            default -> { return Action.DENY; }
-        }
+        return message.getActionType();
     }
 
     public String getActionParameters() {
-        try {
-            return args.get(3);
-        }
-        catch (IndexOutOfBoundsException e) {
-            return "";
-        }
+        return message.getActionParameters();
     }
 
     private String getMessage() {
-        String message = "";
-        StringBuilder stringBuilder = new StringBuilder(message);
-
-        for (int i = 0; i < args.size(); i++) {
-            stringBuilder.append(args.get(i));
-
-            if (i < args.size() - 1)
-                stringBuilder.append("/");
-        }
-
-        message = stringBuilder.toString();
-
-        return message;
+        return message.toString();
     }
 
     @Override
@@ -0,0 +1,12 @@
+package pl.edu.agh.kis.pz1.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Thrown when data received from the connection cannot be split into frames, e.g. frame length is too big.
+ */
+public class InvalidFrameException extends IOException {
+    public InvalidFrameException(String errorMessage) {
+        super(errorMessage);
+    }
+}
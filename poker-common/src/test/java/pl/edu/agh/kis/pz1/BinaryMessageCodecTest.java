@@ -0,0 +1,76 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryMessageCodecTest {
+    private static final String HAND = "ACE of SPADES\nKING of HEARTS\nTEN of CLUBS\nTEN of DIAMONDS\nDEUCE of SPADES\n";
+
+    @Test
+    void givenMessagesOfEveryFormat_whenEncodeAndDecode_thenReturnSameMessage() {
+        Object[][] messages = {
+                { MessageParser.Action.HAND, HAND },
+                { MessageParser.Action.HAND, "" },
+                { MessageParser.Action.EVAL, "Two pair" },
+                { MessageParser.Action.EVAL, "" },
+                { MessageParser.Action.BID, "0 -20" },
+                { MessageParser.Action.BID, "-2147483648 2147483647" },
+                { MessageParser.Action.DRAW, "0 2 3" },
+                { MessageParser.Action.DRAW, "" },
+                { MessageParser.Action.DENY, "Game is full ż" },
+                { MessageParser.Action.ACCEPT, BinaryMessageCodec.NEGOTIATION },
+                // Parameters that are not in the expected form are sent as text.
+                { MessageParser.Action.BID, "040" },
+                { MessageParser.Action.DRAW, "1 a" },
+                { MessageParser.Action.HAND, "JOKER" },
+                { MessageParser.Action.EVAL, "Royal flush" },
+        };
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        Message message = new Message();
+
+        for (Object[] expected : messages) {
+            MessageParser.Action action = (MessageParser.Action) expected[0];
+            String parameters = (String) expected[1];
+            buffer.clear();
+            BinaryMessageCodec.encode(300, -1, action, parameters, buffer);
+
+            assertTrue(buffer.position() <= BinaryMessageCodec.maxLength(parameters));
+            assertTrue(BinaryMessageCodec.isBinary(buffer, 0, buffer.position()));
+            assertTrue(BinaryMessageCodec.decode(buffer, 0, buffer.position(), message));
+            assertEquals(300, message.getGameId());
+            assertEquals(-1, message.getPlayerId());
+            assertEquals(action, message.getActionType());
+            assertEquals(parameters, message.getActionParameters());
+        }
+    }
+
+    @Test
+    void givenHandMessage_whenEncode_thenUseOneByteForOpcodeIdsAndEveryCard() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        BinaryMessageCodec.encode(1, 3, MessageParser.Action.HAND, HAND, buffer);
+
+        assertEquals(1 + 1 + 1 + 5, buffer.position());
+        assertEquals(Card.of(Card.Rank.ACE, Card.Suit.SPADES).code(), buffer.get(3));
+    }
+
+    @Test
+    void givenMalformedMessages_whenDecode_thenReturnInvalidMessage() {
+        byte[][] messages = {
+                { (byte) 0x80 },
+                { (byte) 0x80, 1, (byte) 0x80 },
+                { (byte) 0xBF, 1, 1 },
+                { (byte) 0x84, 1, 1, 52 },
+                { (byte) 0x87, 1, 1, 9 },
+                { (byte) 0x82, 1, 1, (byte) 0xFF },
+        };
+        Message message = new Message();
+
+        for (byte[] bytes : messages) {
+            assertFalse(BinaryMessageCodec.decode(ByteBuffer.wrap(bytes), 0, bytes.length, message));
+            assertEquals(MessageParser.Action.INVALID, message.getActionType());
+        }
+    }
+}
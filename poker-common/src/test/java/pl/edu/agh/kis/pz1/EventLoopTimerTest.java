@@ -0,0 +1,119 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLoopTimerTest {
+    /**
+     * Wheel of 4 buckets of 1 ms turns around every 4 ms, so most delays below wrap around it.
+     */
+    private final EventLoopTimer timer = new EventLoopTimer(1, 4);
+
+    @Test
+    void givenDelaysLongerThanWheel_whenRunExpired_thenNoTaskRunsBeforeItsDeadline() {
+        Random random = new Random(2718);
+        long[] deadlines = new long[200];
+        long[] ranAt = new long[deadlines.length];
+
+        for (int i = 0; i < deadlines.length; i++) {
+            int task = i;
+            long delayMillis = 1 + random.nextInt(20);
+            deadlines[i] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+            timer.schedule(delayMillis, () -> ranAt[task] = System.nanoTime());
+        }
+
+        runUntil(() -> timer.millisToNext() < 0);
+
+        for (int i = 0; i < deadlines.length; i++) {
+            assertTrue(ranAt[i] > 0, "Task " + i + " has not run.");
+            assertTrue(ranAt[i] >= deadlines[i], "Task " + i + " has run before its deadline.");
+        }
+    }
+
+    @Test
+    void givenTaskCancelledByTaskOfSameTick_whenRunExpired_thenOnlyFirstRuns() {
+        List<String> ran = new ArrayList<>();
+        EventLoopTimer.Timeout[] second = new EventLoopTimer.Timeout[1];
+        timer.schedule(2, () -> {
+            ran.add("first");
+            second[0].cancel();
+        });
+        second[0] = timer.schedule(2, () -> ran.add("second"));
+        EventLoopTimer.Timeout cancelled = timer.schedule(1, () -> ran.add("cancelled"));
+        cancelled.cancel();
+
+        runUntil(() -> !ran.isEmpty());
+        timer.runExpired();
+
+        assertEquals(List.of("first"), ran);
+        assertEquals(-1, timer.millisToNext());
+    }
+
+    @Test
+    void givenTaskScheduledByExpiringTask_whenRunExpired_thenItRunsInLaterCall() {
+        List<String> ran = new ArrayList<>();
+        timer.schedule(1, () -> {
+            ran.add("first");
+            timer.schedule(1, () -> ran.add("second"));
+        });
+
+        runUntil(() -> !ran.isEmpty());
+
+        assertEquals(List.of("first"), ran);
+        assertTrue(timer.millisToNext() >= 0);
+
+        runUntil(() -> ran.size() == 2);
+
+        assertEquals(List.of("first", "second"), ran);
+    }
+
+    @Test
+    void givenTasksWithoutDelay_whenRunExpired_thenRunInOrderAndTheirOwnWaitForNextCall() {
+        List<Integer> ran = new ArrayList<>();
+        assertEquals(-1, timer.millisToNext());
+
+        timer.schedule(0, () -> {
+            ran.add(1);
+            timer.schedule(0, () -> ran.add(3));
+        });
+        timer.schedule(0, () -> ran.add(2));
+        timer.schedule(0, () -> ran.add(4)).cancel();
+
+        assertEquals(0, timer.millisToNext());
+        timer.runExpired();
+        assertEquals(List.of(1, 2), ran);
+
+        assertEquals(0, timer.millisToNext());
+        timer.runExpired();
+        assertEquals(List.of(1, 2, 3), ran);
+        assertEquals(-1, timer.millisToNext());
+    }
+
+    /**
+     * Runs the timer as the event loop does, sleeping no longer than it asks, until the condition holds.
+     */
+    private void runUntil(BooleanSupplier condition) {
+        long giveUp = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < giveUp, "Timer has not run the tasks in time.");
+
+            try {
+                Thread.sleep(Math.max(timer.millisToNext(), 0));
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+
+            timer.runExpired();
+        }
+    }
+}
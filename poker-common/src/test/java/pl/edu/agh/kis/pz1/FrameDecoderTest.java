@@ -0,0 +1,63 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+import pl.edu.agh.kis.pz1.exceptions.InvalidFrameException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameDecoderTest {
+    @Test
+    void givenFramesSplitIntoSingleBytes_whenReadFrom_thenDecodeEveryFrameOnce() throws IOException {
+        byte[] bytes = concat(FrameEncoder.encode("1/0/han/ACE of SPADES\n"), FrameEncoder.encode(""), FrameEncoder.encode("1/0/evl/PAIR"));
+        FrameDecoder decoder = new FrameDecoder();
+        StringBuilder decoded = new StringBuilder();
+
+        for (byte b : bytes) {
+            decoder.readFrom(Channels.newChannel(new ByteArrayInputStream(new byte[] { b })));
+
+            for (String frame = decoder.nextFrame(); frame != null; frame = decoder.nextFrame())
+                decoded.append('[').append(frame).append(']');
+        }
+
+        assertEquals("[1/0/han/ACE of SPADES\n][][1/0/evl/PAIR]", decoded.toString());
+    }
+
+    @Test
+    void givenCoalescedFramesLongerThanBuffer_whenReadFrom_thenDecodeAllFrames() throws IOException {
+        String longMessage = "x".repeat(5000);
+        byte[] bytes = concat(FrameEncoder.encode("1/2/srt/"), FrameEncoder.encode(longMessage), FrameEncoder.encode("1/2/bid/40 20"));
+        FrameDecoder decoder = new FrameDecoder();
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(bytes));
+
+        while (decoder.readFrom(channel) > 0);
+
+        assertEquals("1/2/srt/", decoder.nextFrame());
+        assertEquals(longMessage, decoder.nextFrame());
+        assertEquals("1/2/bid/40 20", decoder.nextFrame());
+        assertNull(decoder.nextFrame());
+    }
+
+    @Test
+    void givenTooLongFrameLength_whenNextFrame_thenThrowInvalidFrameException() throws IOException {
+        FrameDecoder decoder = new FrameDecoder();
+        decoder.readFrom(Channels.newChannel(new ByteArrayInputStream(new byte[] { 0x7F, 0, 0, 0, 'a' })));
+
+        assertThrows(InvalidFrameException.class, decoder::nextFrame);
+    }
+
+    private static byte[] concat(ByteBuffer... frames) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        for (ByteBuffer frame : frames)
+            bytes.write(frame.array(), frame.position(), frame.remaining());
+
+        return bytes.toByteArray();
+    }
+}
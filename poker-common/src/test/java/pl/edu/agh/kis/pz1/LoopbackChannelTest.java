@@ -0,0 +1,65 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoopbackChannelTest {
+    @Test
+    void givenFramesWrittenToOneEnd_whenReadByDecoderOfOtherEnd_thenDecodeAllFrames() throws IOException {
+        LoopbackChannel[] pair = LoopbackChannel.openPair();
+        String longMessage = "x".repeat(5000);
+        ByteBuffer out = ByteBuffer.allocate(2 * FrameEncoder.maxFrameLength(longMessage));
+        FrameEncoder.encode(1, 2, MessageParser.Action.START, "", false, out);
+        FrameEncoder.encode(1, 2, MessageParser.Action.EVAL, longMessage, false, out);
+        pair[0].write(out.flip());
+
+        FrameDecoder decoder = new FrameDecoder();
+
+        while (decoder.readFrom(pair[1]) > 0);
+
+        assertEquals("1/2/srt/", decoder.nextFrame());
+        assertEquals("1/2/evl/" + longMessage, decoder.nextFrame());
+        assertNull(decoder.nextFrame());
+    }
+
+    @Test
+    void givenListener_whenWrittenBeforeAndAfterDrain_thenListenerRunsOncePerDrain() throws IOException {
+        LoopbackChannel[] pair = LoopbackChannel.openPair();
+        AtomicInteger signals = new AtomicInteger();
+        pair[1].setListener(signals::incrementAndGet);
+        ByteBuffer in = ByteBuffer.allocate(16);
+
+        pair[0].write(ByteBuffer.wrap(new byte[] { 1 }));
+        pair[0].write(ByteBuffer.wrap(new byte[] { 2 }));
+        assertEquals(1, signals.get());
+
+        assertEquals(2, pair[1].read(in));
+        assertEquals(0, pair[1].read(in));
+        pair[0].write(ByteBuffer.wrap(new byte[] { 3 }));
+
+        assertEquals(2, signals.get());
+    }
+
+    @Test
+    void givenClosedEnd_whenOtherEndReadsAndWrites_thenDataIsReadBeforeEndOfStream() throws IOException {
+        LoopbackChannel[] pair = LoopbackChannel.openPair();
+        AtomicInteger signals = new AtomicInteger();
+        pair[1].setListener(signals::incrementAndGet);
+        ByteBuffer in = ByteBuffer.allocate(16);
+
+        pair[0].write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+        pair[0].close();
+
+        assertEquals(2, signals.get());
+        assertEquals(3, pair[1].read(in));
+        assertEquals(-1, pair[1].read(in));
+        assertThrows(IOException.class, () -> pair[1].write(ByteBuffer.wrap(new byte[] { 4 })));
+        assertThrows(ClosedChannelException.class, () -> pair[0].read(in));
+    }
+}
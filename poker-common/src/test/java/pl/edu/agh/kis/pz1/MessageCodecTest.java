@@ -0,0 +1,57 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageCodecTest {
+    @Test
+    void givenEveryAction_whenEncodeAndDecode_thenReturnSameMessageAsMessageParser() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        Message message = new Message();
+
+        for (MessageParser.Action action : MessageParser.Action.values()) {
+            String parameters = "ACE of SPADES\nKING of HEARTS ż";
+            buffer.clear();
+            MessageCodec.encode(-1, 2147483647, action, parameters, buffer);
+
+            String expectedValue = new MessageParser().parse(-1, 2147483647, action, parameters);
+            assertEquals(expectedValue, new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+
+            assertTrue(MessageCodec.decode(buffer, 0, buffer.position(), message));
+            assertEquals(-1, message.getGameId());
+            assertEquals(2147483647, message.getPlayerId());
+            assertEquals(action, message.getActionType());
+            assertEquals(parameters, message.getActionParameters());
+        }
+    }
+
+    @Test
+    void givenMalformedMessages_whenDecode_thenBehaveAsMessageParser() {
+        String[] texts = { "1/2/bid/40", "1/2/xyz/", "1/2/acc", "12", "a/2/bid/5", "1/99999999999/bid/5", "" };
+        Message message = new Message();
+
+        for (String text : texts) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            MessageParser parser = new MessageParser(text);
+            MessageCodec.decode(ByteBuffer.wrap(bytes), 0, bytes.length, message);
+
+            assertEquals(parser.getGameId(), message.getGameId(), text);
+            assertEquals(parser.getPlayerId(), message.getPlayerId(), text);
+            assertEquals(parser.getActionType(), message.getActionType(), text);
+            assertEquals(parser.getActionParameters(), message.getActionParameters(), text);
+        }
+    }
+
+    @Test
+    void givenBidMessage_whenGetIntParameter_thenReturnBidWithoutParsingString() {
+        byte[] bytes = "3/1/bid/-40".getBytes(StandardCharsets.UTF_8);
+        Message message = new Message();
+        MessageCodec.decode(ByteBuffer.wrap(bytes), 0, bytes.length, message);
+
+        assertEquals(-40, message.getIntParameter());
+    }
+}
@@ -0,0 +1,76 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Class DecisionTime is the distribution of time simulated players take to answer requests of the server.
+ * It is given as text: a number of milliseconds for a fixed time, <code>uniform:min:max</code>
+ * or <code>exponential:mean</code>.
+ *
+ * @author Kacper Cienkosz
+ */
+final class DecisionTime {
+    private enum Kind { FIXED, UNIFORM, EXPONENTIAL }
+
+    private final Kind kind;
+    private final long first;
+    private final long second;
+
+    private DecisionTime(Kind kind, long first, long second) {
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Parses the distribution.
+     *
+     * @param text Distribution, e.g. "0", "uniform:10:200" or "exponential:50".
+     * @return Distribution.
+     * @throws IllegalArgumentException If the text is not a valid distribution.
+     */
+    static DecisionTime parse(String text) {
+        String[] parts = text.trim().split(":");
+
+        try {
+            DecisionTime decisionTime = switch (parts[0]) {
+                case "uniform" -> parts.length == 3
+                        ? new DecisionTime(Kind.UNIFORM, Long.parseLong(parts[1]), Long.parseLong(parts[2])) : null;
+                case "exponential" -> parts.length == 2
+                        ? new DecisionTime(Kind.EXPONENTIAL, Long.parseLong(parts[1]), 0) : null;
+                default -> parts.length == 1 ? new DecisionTime(Kind.FIXED, Long.parseLong(parts[0]), 0) : null;
+            };
+
+            if (decisionTime != null && decisionTime.first >= 0 && decisionTime.second >= 0
+                    && (decisionTime.kind != Kind.UNIFORM || decisionTime.first <= decisionTime.second))
+                return decisionTime;
+        }
+        catch (NumberFormatException e) {
+            // Reported below.
+        }
+
+        throw new IllegalArgumentException("Invalid decision time: " + text + ".");
+    }
+
+    /**
+     * Draws time of one decision.
+     *
+     * @return Milliseconds, <code>0</code> for an immediate answer.
+     */
+    long sampleMillis() {
+        return switch (kind) {
+            case FIXED -> first;
+            case UNIFORM -> ThreadLocalRandom.current().nextLong(first, second + 1);
+            case EXPONENTIAL -> Math.round(-first * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+        };
+    }
+
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case FIXED -> Long.toString(first);
+            case UNIFORM -> "uniform:" + first + ":" + second;
+            case EXPONENTIAL -> "exponential:" + first;
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package pl.edu.agh.kis.pz1;
+
+/**
+ * Class LatencyHistogram counts latencies in buckets of logarithmic width, so recording takes constant time and memory
+ * however many values are recorded. Values below {@link #LINEAR_LIMIT} nanoseconds are kept exactly, larger ones
+ * within 1/{@link #SUB_BUCKETS} of their value. Not thread-safe, every loop records its own histograms
+ * and they are merged at the end.
+ *
+ * @author Kacper Cienkosz
+ */
+final class LatencyHistogram {
+    /**
+     * Number of buckets every power of two is divided into.
+     */
+    static final int SUB_BUCKETS = 32;
+    static final long LINEAR_LIMIT = 2L * SUB_BUCKETS;
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    private final long[] counts = new long[(64 - SUB_BUCKET_BITS) * SUB_BUCKETS];
+    private long count = 0;
+    private long sum = 0;
+    private long max = 0;
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos Latency in nanoseconds, negative values are recorded as <code>0</code>.
+     */
+    void record(long nanos) {
+        long value = Math.max(nanos, 0);
+
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds values of another histogram to this one.
+     *
+     * @param other Histogram to add.
+     */
+    void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++)
+            counts[i] += other.counts[i];
+
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the value below or at which the given percent of the recorded values lie.
+     *
+     * @param percent Percentile, from 0 to 100.
+     * @return Highest value of the bucket of the percentile, <code>0</code> if nothing has been recorded.
+     */
+    long percentile(double percent) {
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+
+            if (seen >= rank)
+                return Math.min(highestValue(i), max);
+        }
+
+        return max;
+    }
+
+    private static int index(long value) {
+        if (value < LINEAR_LIMIT)
+            return (int) value;
+
+        // Value shifted by this many bits falls between SUB_BUCKETS and 2 * SUB_BUCKETS.
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long highestValue(int index) {
+        if (index < LINEAR_LIMIT)
+            return index;
+
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,146 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class LoadGenerator opens many connections to a running PokerServer and plays games on all of them,
+ * recording latencies of the messages of the server (see {@link LoadStrategy}).
+ * Arguments are the number of connections and the number of games every connection plays, e.g. <code>3000 20</code>.
+ * <p>
+ * Connections are served by <code>poker.clientThreads</code> loops (default number of processors, at most 4).
+ * Time of decisions is set with <code>poker.thinkTime</code>, see {@link DecisionTime} (default 0).
+ * Server is found at <code>poker.host</code> and <code>poker.port</code> (default localhost:31415), or at the Unix domain
+ * socket given with <code>poker.unixSocket</code>, and <code>poker.protocol=binary</code> asks for the binary format.
+ * Report in JSON is printed or written to the file given with <code>poker.report</code>. Connection not seated within
+ * <code>poker.acceptTimeout</code> milliseconds (default 10000) is closed and counted as not completed.
+ *
+ * @author Kacper Cienkosz
+ */
+public class LoadGenerator {
+    /**
+     * Runs the load test and writes the report.
+     *
+     * @param args Number of connections and games per connection.
+     */
+    public static void main(String[] args) {
+        int connections;
+        int games;
+
+        try {
+            connections = Integer.parseInt(args[0]);
+            games = Integer.parseInt(args[1]);
+        }
+        catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Usage: <number of connections> <games per connection>");
+            return;
+        }
+
+        DecisionTime decisionTime;
+
+        try {
+            decisionTime = DecisionTime.parse(System.getProperty("poker.thinkTime", "0"));
+        }
+        catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage() + " Use milliseconds, uniform:min:max or exponential:mean.");
+            return;
+        }
+
+        SocketAddress address = PokerClient.serverAddress(System.getProperty("poker.host", "localhost"),
+                Integer.getInteger("poker.port", 31415));
+        boolean binary = "binary".equals(System.getProperty("poker.protocol", "text"));
+        long acceptTimeoutMillis = Long.getLong("poker.acceptTimeout", 10000);
+        int numberOfThreads = Math.max(1, Math.min(Math.max(1, connections),
+                Integer.getInteger("poker.clientThreads", Math.min(4, Runtime.getRuntime().availableProcessors()))));
+
+        System.out.println("Opening " + connections + " connections to " + address + " on " + numberOfThreads
+                + " threads, " + games + " games each, decision time: " + decisionTime);
+
+        try {
+            String report = run(address, binary, connections, games, decisionTime, acceptTimeoutMillis, numberOfThreads);
+            String path = System.getProperty("poker.report");
+
+            if (path == null)
+                System.out.println(report);
+            else {
+                Files.writeString(Path.of(path), report, StandardCharsets.UTF_8);
+                System.out.println("Report written to " + path + ".");
+            }
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static String run(SocketAddress address, boolean binary, int connections, int games,
+                              DecisionTime decisionTime, long acceptTimeoutMillis, int numberOfThreads) throws IOException {
+        ClientLoop[] loops = new ClientLoop[numberOfThreads];
+        LoadStatistics[] statistics = new LoadStatistics[numberOfThreads];
+
+        for (int i = 0; i < numberOfThreads; i++) {
+            loops[i] = new ClientLoop();
+            statistics[i] = new LoadStatistics();
+        }
+
+        long start = System.nanoTime();
+
+        for (int connection = 0; connection < connections; connection++) {
+            int i = connection % numberOfThreads;
+            loops[i].connect(address, new LoadStrategy(loops[i], statistics[i], decisionTime, games, acceptTimeoutMillis), binary);
+        }
+
+        Thread[] threads = new Thread[numberOfThreads];
+
+        for (int i = 0; i < numberOfThreads; i++) {
+            threads[i] = new Thread(loops[i], "poker-load-" + i);
+            threads[i].start();
+        }
+
+        try {
+            for (Thread thread: threads)
+                thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        LoadStatistics total = new LoadStatistics();
+
+        for (LoadStatistics loopStatistics: statistics)
+            total.merge(loopStatistics);
+
+        return report(total, connections, games, decisionTime, numberOfThreads, binary, elapsedNanos);
+    }
+
+    private static String report(LoadStatistics total, int connections, int games, DecisionTime decisionTime,
+                                 int numberOfThreads, boolean binary, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long messages = total.getMessagesSent() + total.getMessagesReceived();
+        StringBuilder json = new StringBuilder();
+
+        json.append("{\n")
+                .append("  \"connections\": ").append(connections).append(",\n")
+                .append("  \"gamesPerConnection\": ").append(games).append(",\n")
+                .append("  \"threads\": ").append(numberOfThreads).append(",\n")
+                .append("  \"protocol\": \"").append(binary ? "binary" : "text").append("\",\n")
+                .append("  \"decisionTime\": \"").append(decisionTime).append("\",\n")
+                .append("  \"elapsedMillis\": ").append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append(",\n")
+                .append("  \"connectionsCompleted\": ").append(total.getConnectionsCompleted()).append(",\n")
+                .append("  \"connectionsClosed\": ").append(total.getConnectionsClosed()).append(",\n")
+                .append("  \"gamesPlayed\": ").append(total.getGamesPlayed()).append(",\n")
+                .append("  \"messagesSent\": ").append(total.getMessagesSent()).append(",\n")
+                .append("  \"messagesReceived\": ").append(total.getMessagesReceived()).append(",\n")
+                .append("  \"messagesPerSecond\": ").append(String.format(Locale.ROOT, "%.1f", messages / seconds)).append(",\n")
+                .append("  \"latencyMicros\": ");
+
+        total.appendLatencies(json);
+
+        return json.append("\n}\n").toString();
+    }
+}
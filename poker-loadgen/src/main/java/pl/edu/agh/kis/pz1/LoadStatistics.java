@@ -0,0 +1,131 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Class LoadStatistics collects results of the connections served by one {@link ClientLoop}: latencies
+ * of the messages received from the server, by their action type, and counts of messages and games.
+ * Not thread-safe, statistics of the loops are merged when all of them have finished.
+ *
+ * @author Kacper Cienkosz
+ */
+final class LoadStatistics {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<MessageParser.Action, LatencyHistogram> latencies = new EnumMap<>(MessageParser.Action.class);
+    private long messagesSent = 0;
+    private long gamesPlayed = 0;
+    private long connectionsCompleted = 0;
+    private long connectionsClosed = 0;
+
+    /**
+     * Records message received from the server.
+     *
+     * @param action Type of the message.
+     * @param nanos Time since the previous message of the connection, sent or received.
+     */
+    void received(MessageParser.Action action, long nanos) {
+        latencies.computeIfAbsent(action, a -> new LatencyHistogram()).record(nanos);
+    }
+
+    void sent() {
+        messagesSent++;
+    }
+
+    void gamePlayed() {
+        gamesPlayed++;
+    }
+
+    /**
+     * Records closed connection.
+     *
+     * @param completed Whether the connection has played all its games.
+     */
+    void connectionClosed(boolean completed) {
+        connectionsClosed++;
+
+        if (completed)
+            connectionsCompleted++;
+    }
+
+    long getMessagesSent() {
+        return messagesSent;
+    }
+
+    long getMessagesReceived() {
+        long received = 0;
+
+        for (LatencyHistogram histogram: latencies.values())
+            received += histogram.getCount();
+
+        return received;
+    }
+
+    long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    long getConnectionsCompleted() {
+        return connectionsCompleted;
+    }
+
+    long getConnectionsClosed() {
+        return connectionsClosed;
+    }
+
+    LatencyHistogram getLatency(MessageParser.Action action) {
+        return latencies.get(action);
+    }
+
+    /**
+     * Adds results of another loop to these.
+     *
+     * @param other Results to add.
+     * @return These results.
+     */
+    LoadStatistics merge(LoadStatistics other) {
+        for (Map.Entry<MessageParser.Action, LatencyHistogram> entry: other.latencies.entrySet())
+            latencies.computeIfAbsent(entry.getKey(), a -> new LatencyHistogram()).merge(entry.getValue());
+
+        messagesSent += other.messagesSent;
+        gamesPlayed += other.gamesPlayed;
+        connectionsCompleted += other.connectionsCompleted;
+        connectionsClosed += other.connectionsClosed;
+
+        return this;
+    }
+
+    /**
+     * Writes latencies as a JSON object with one entry per action code, e.g.
+     * <code>"bid": {"count": 10, "mean": 85.2, "p50": 80, ..., "max": 310}</code>. Values are in microseconds.
+     *
+     * @param json Builder the object is appended to.
+     */
+    void appendLatencies(StringBuilder json) {
+        json.append('{');
+        String separator = "";
+
+        for (Map.Entry<MessageParser.Action, LatencyHistogram> entry: latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+
+            json.append(separator).append("\n    \"").append(MessageCodec.code(entry.getKey())).append("\": {")
+                    .append("\"count\": ").append(histogram.getCount())
+                    .append(", \"mean\": ").append(String.format(Locale.ROOT, "%.1f", histogram.getMean() / 1000));
+
+            for (double percentile: PERCENTILES)
+                json.append(", \"p").append(String.valueOf(percentile).replace(".0", "").replace(".", ""))
+                        .append("\": ").append(micros(histogram.percentile(percentile)));
+
+            json.append(", \"max\": ").append(micros(histogram.getMax())).append('}');
+            separator = ",";
+        }
+
+        json.append(latencies.isEmpty() ? "}" : "\n  }");
+    }
+
+    private static long micros(long nanos) {
+        return (nanos + 500) / 1000;
+    }
+}
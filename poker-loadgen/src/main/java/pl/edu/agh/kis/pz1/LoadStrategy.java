@@ -0,0 +1,154 @@
+package pl.edu.agh.kis.pz1;
+
+/**
+ * Class LoadStrategy plays one connection of the {@link LoadGenerator}. Player always calls or checks, keeps its cards
+ * and plays the given number of games, leaving earlier if other players leave the table.
+ * Every decision is sent after time drawn from the {@link DecisionTime}, scheduled on the loop of the connection.
+ * <p>
+ * Latency of every message received from the server is the time since the previous message of the connection,
+ * sent or received: e.g. bid after our bid or fold, han after srt, acc after connecting.
+ * With decisions taking time, latencies of requests include decision time of the other players at the table.
+ * Connection that is not seated in time is closed, so a server dropping connections does not stall the test.
+ *
+ * @author Kacper Cienkosz
+ */
+class LoadStrategy implements ClientStrategy {
+    private final ClientLoop loop;
+    private final LoadStatistics statistics;
+    private final DecisionTime decisionTime;
+    private final int games;
+    private final long acceptTimeoutMillis;
+    private ClientSession session;
+    private int played = 0;
+    /**
+     * Time of the previous message sent or received, at first the time of connecting.
+     */
+    private long lastMessage = System.nanoTime();
+
+    /**
+     * Creates player.
+     *
+     * @param loop Loop serving the connection.
+     * @param statistics Statistics of the loop.
+     * @param decisionTime Distribution of the time of decisions.
+     * @param games Number of games to play.
+     * @param acceptTimeoutMillis Time for the server to seat the player after connecting.
+     */
+    LoadStrategy(ClientLoop loop, LoadStatistics statistics, DecisionTime decisionTime, int games, long acceptTimeoutMillis) {
+        this.loop = loop;
+        this.statistics = statistics;
+        this.decisionTime = decisionTime;
+        this.games = games;
+        this.acceptTimeoutMillis = acceptTimeoutMillis;
+    }
+
+    private void received(MessageParser.Action action) {
+        long now = System.nanoTime();
+        statistics.received(action, now - lastMessage);
+        lastMessage = now;
+    }
+
+    /**
+     * Sends decision at once or schedules it.
+     *
+     * @return Decision to send now, <code>null</code> if it is sent later.
+     */
+    private Decision decide(Decision decision) {
+        long delay = decisionTime.sampleMillis();
+
+        if (delay == 0) {
+            sent();
+            return decision;
+        }
+
+        loop.schedule(delay, () -> {
+            if (session.isOpen()) {
+                sent();
+                session.send(decision);
+            }
+        });
+
+        return null;
+    }
+
+    private void sent() {
+        lastMessage = System.nanoTime();
+        statistics.sent();
+    }
+
+    @Override
+    public void onConnect(ClientSession session) {
+        this.session = session;
+
+        loop.schedule(acceptTimeoutMillis, () -> {
+            if (session.getPlayerId() == -1)
+                session.close();
+        });
+    }
+
+    @Override
+    public void onAccept(ClientSession session) {
+        received(MessageParser.Action.ACCEPT);
+    }
+
+    @Override
+    public void onDeny(String reason) {
+        received(MessageParser.Action.DENY);
+    }
+
+    @Override
+    public void onStart() {
+        received(MessageParser.Action.START);
+    }
+
+    @Override
+    public void onHand(String hand) {
+        received(MessageParser.Action.HAND);
+    }
+
+    @Override
+    public void onEvaluation(String handValue) {
+        received(MessageParser.Action.EVAL);
+    }
+
+    @Override
+    public void onCredit(int credit) {
+        received(MessageParser.Action.CREDIT);
+    }
+
+    @Override
+    public void onPrize(int prize) {
+        received(MessageParser.Action.PRIZE);
+    }
+
+    @Override
+    public void onTimeout(String action) {
+        received(MessageParser.Action.TIMEOUT);
+    }
+
+    @Override
+    public void onDisconnect() {
+        statistics.connectionClosed(played >= games);
+    }
+
+    @Override
+    public Decision bid(int currentStake, int amountToCall) {
+        received(MessageParser.Action.BID);
+        return decide(Decision.bid(Math.max(0, amountToCall)));
+    }
+
+    @Override
+    public Decision draw() {
+        received(MessageParser.Action.DRAW);
+        return decide(Decision.draw());
+    }
+
+    @Override
+    public Decision gameEnded(int playersMissing) {
+        received(MessageParser.Action.END);
+        played++;
+        statistics.gamePlayed();
+
+        return decide(played < games && playersMissing == 0 ? Decision.playOn() : Decision.leave());
+    }
+}
@@ -0,0 +1,31 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionTimeTest {
+    @Test
+    void givenDistributions_whenParse_thenSamplesFollowThem() {
+        DecisionTime fixed = DecisionTime.parse("15");
+        DecisionTime uniform = DecisionTime.parse("uniform:10:20");
+        DecisionTime exponential = DecisionTime.parse("exponential:5");
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(15, fixed.sampleMillis());
+
+            long sample = uniform.sampleMillis();
+            assertTrue(sample >= 10 && sample <= 20);
+            assertTrue(exponential.sampleMillis() >= 0);
+        }
+
+        assertEquals("uniform:10:20", uniform.toString());
+    }
+
+    @Test
+    void givenInvalidDistribution_whenParse_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> DecisionTime.parse("uniform:20:10"));
+        assertThrows(IllegalArgumentException.class, () -> DecisionTime.parse("normal:5"));
+        assertThrows(IllegalArgumentException.class, () -> DecisionTime.parse("-1"));
+    }
+}
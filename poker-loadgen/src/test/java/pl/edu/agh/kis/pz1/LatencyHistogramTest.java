@@ -0,0 +1,51 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    void givenSmallValues_whenPercentile_thenValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long value = 1; value <= 50; value++)
+            histogram.record(value);
+
+        assertEquals(25, histogram.percentile(50));
+        assertEquals(50, histogram.percentile(100));
+        assertEquals(25.5, histogram.getMean());
+    }
+
+    @Test
+    void givenLargeValues_whenPercentile_thenValuesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long value = 1; value <= 100_000; value++)
+            histogram.record(value * 1000);
+
+        long median = histogram.percentile(50);
+        long p99 = histogram.percentile(99);
+
+        assertTrue(Math.abs(median - 50_000_000) <= 50_000_000 / LatencyHistogram.SUB_BUCKETS, "median " + median);
+        assertTrue(Math.abs(p99 - 99_000_000) <= 99_000_000 / LatencyHistogram.SUB_BUCKETS, "p99 " + p99);
+        assertEquals(100_000_000, histogram.percentile(100));
+        assertEquals(100_000_000, histogram.getMax());
+    }
+
+    @Test
+    void givenTwoHistograms_whenMerge_thenCountsAndMaxAreCombined() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(Long.MAX_VALUE);
+        second.record(-5);
+
+        first.merge(second);
+
+        assertEquals(3, first.getCount());
+        assertEquals(Long.MAX_VALUE, first.getMax());
+        assertEquals(0, first.percentile(1));
+        assertEquals(Long.MAX_VALUE, first.percentile(100));
+    }
+}
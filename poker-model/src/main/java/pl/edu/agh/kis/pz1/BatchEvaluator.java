@@ -0,0 +1,94 @@
+package pl.edu.agh.kis.pz1;
+
+/**
+ * Evaluates many five-card hands at once.
+ * Hands are passed as struct of arrays: one <code>int[]</code> with card codes (see {@link Card#code()}) laid out
+ * in five blocks of <code>count</code> entries, so code of card <code>k</code> of hand <code>i</code>
+ * is at index <code>k * count + i</code>. Strengths are written to the output array on the {@link LookupEvaluator} scale.
+ * <p>
+ * When the model is built with Maven profile <code>vector</code> and module <code>jdk.incubator.vector</code>
+ * is present (JVM started with <code>--add-modules jdk.incubator.vector</code>) lanes of hands are evaluated
+ * with the JDK Vector API, otherwise scalar loop is used. Vector path can be disabled with <code>-Dpoker.vector=false</code>.
+ *
+ * @author Kacper Cienkosz
+ */
+public final class BatchEvaluator {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final Kernel VECTOR_KERNEL = loadVectorKernel();
+
+    /**
+     * Evaluation loop over a batch of hands.
+     */
+    interface Kernel {
+        void evaluate(int[] cards, int count, int[] strengths);
+    }
+
+    private BatchEvaluator() {
+    }
+
+    /**
+     * Evaluates batch of hands using vector path if available.
+     *
+     * @param cards Card codes of all hands, card <code>k</code> of hand <code>i</code> at index <code>k * count + i</code>.
+     * @param count Number of hands.
+     * @param strengths Array receiving strength of hand <code>i</code> at index <code>i</code>.
+     */
+    public static void evaluate(int[] cards, int count, int[] strengths) {
+        checkSizes(cards, count, strengths);
+
+        if (VECTOR_KERNEL != null)
+            VECTOR_KERNEL.evaluate(cards, count, strengths);
+        else
+            evaluateScalar(cards, count, strengths, 0);
+    }
+
+    /**
+     * Evaluates batch of hands with scalar loop, see {@link #evaluate(int[], int, int[])}.
+     *
+     * @param cards Card codes of all hands.
+     * @param count Number of hands.
+     * @param strengths Array receiving strengths.
+     */
+    public static void evaluateScalar(int[] cards, int count, int[] strengths) {
+        checkSizes(cards, count, strengths);
+        evaluateScalar(cards, count, strengths, 0);
+    }
+
+    /**
+     * Checks if batches are evaluated with the Vector API.
+     *
+     * @return <code>true</code> if vector path is used, <code>false</code> otherwise.
+     */
+    public static boolean isVectorized() {
+        return VECTOR_KERNEL != null;
+    }
+
+    static void evaluateScalar(int[] cards, int count, int[] strengths, int from) {
+        int[] codes = LookupEvaluator.CARDS;
+
+        for (int i = from; i < count; i++)
+            strengths[i] = LookupEvaluator.evaluate(codes[cards[i]], codes[cards[count + i]],
+                    codes[cards[2 * count + i]], codes[cards[3 * count + i]], codes[cards[4 * count + i]]);
+    }
+
+    private static void checkSizes(int[] cards, int count, int[] strengths) {
+        if (cards.length < 5 * count || strengths.length < count)
+            throw new IllegalArgumentException("Arrays are too small for " + count + " hands.");
+    }
+
+    private static Kernel loadVectorKernel() {
+        if (!Boolean.parseBoolean(System.getProperty("poker.vector", "true")))
+            return null;
+
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty())
+            return null;
+
+        try {
+            return (Kernel) Class.forName(BatchEvaluator.class.getPackageName() + ".VectorBatchKernel")
+                    .getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
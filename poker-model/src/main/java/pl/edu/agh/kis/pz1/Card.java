@@ -19,14 +19,23 @@ public class Card  {
      */
     public enum Suit { CLUBS, DIAMONDS, HEARTS, SPADES }
 
+    /**
+     * Number of distinct cards, also the upper bound of card codes.
+     */
+    public static final int NUMBER_OF_CARDS = 52;
+
     private final Rank rank;
     private final Suit suit;
+    private final int code;
     private static final List<Card> protoDeck = new ArrayList<>();
+    private static final Card[] byCode = new Card[NUMBER_OF_CARDS];
 
     static {
         for (Suit suit: Suit.values())  {
             for (Rank rank: Rank.values()) {
-                protoDeck.add(new Card(rank, suit));
+                Card card = new Card(rank, suit);
+                protoDeck.add(card);
+                byCode[card.code] = card;
             }
         }
     }
@@ -34,11 +43,56 @@ public class Card  {
     private Card(Rank rank, Suit suit) {
         this.rank = rank;
         this.suit = suit;
+        this.code = code(rank.ordinal(), suit.ordinal());
     }
 
     public Rank rank() { return rank; }
     public Suit suit() { return suit; }
 
+    /**
+     * Returns primitive code of the card, see {@link #code(int, int)}.
+     *
+     * @return Code of the card.
+     */
+    public int code() { return code; }
+
+    /**
+     * Encodes card as a small integer.
+     * Bits 2-5 hold rank ordinal and bits 0-1 suit ordinal, so codes are between 0 and 51
+     * and cards with higher rank have higher codes.
+     *
+     * @param rank Rank ordinal.
+     * @param suit Suit ordinal.
+     * @return Code of the card.
+     */
+    public static int code(int rank, int suit) {
+        return (rank << 2) | suit;
+    }
+
+    public static int rankOf(int code) { return code >>> 2; }
+    public static int suitOf(int code) { return code & 3; }
+
+    /**
+     * Returns card with the given code.
+     *
+     * @param code Code of the card, see {@link #code(int, int)}.
+     * @return Card.
+     */
+    public static Card of(int code) {
+        return byCode[code];
+    }
+
+    /**
+     * Returns card with the given rank and suit.
+     *
+     * @param rank Rank of the card.
+     * @param suit Suit of the card.
+     * @return Card.
+     */
+    public static Card of(Rank rank, Suit suit) {
+        return byCode[code(rank.ordinal(), suit.ordinal())];
+    }
+
     public String toString() {
         return rank + " of " + suit;
     }
@@ -1,19 +1,50 @@
 package pl.edu.agh.kis.pz1;
 import java.util.ArrayList;
-import java.util.Collections;
 
 /**
  * Class Deck is a contains a deck and provides necessary methods for it.
+ * Cards are kept as codes (see {@link Card#code()}) in a fixed array with a dealing cursor.
+ * Shuffling is lazy: Fisher-Yates swap for a position is drawn only when the card from that position is dealt,
+ * so a game dealing 20 cards pays for 20 random numbers instead of 52.
  *
  * @author Kacper Cienkosz
  */
 public class Deck {
     /**
-     * Deck containing all cards.
+     * Codes of all cards in the order of {@link Card#newDeck()}.
      */
-    private ArrayList<Card> deck;
+    private static final byte[] sortedDeck = new byte[Card.NUMBER_OF_CARDS];
+
+    static {
+        ArrayList<Card> cards = Card.newDeck();
+
+        for (int i = 0; i < Card.NUMBER_OF_CARDS; i++)
+            sortedDeck[i] = (byte) cards.get(i).code();
+    }
+
+    /**
+     * Deck containing all cards. Cards before the cursor have already been dealt.
+     */
+    private final byte[] deck = new byte[Card.NUMBER_OF_CARDS];
+    private final RandomSource random;
+    private int cursor = 0;
+    /**
+     * Cards before this position are already in their final shuffled place.
+     */
+    private int shuffledUpTo = 0;
+    private boolean shuffled = false;
 
     Deck() {
+        this(RandomSource.threadLocal());
+    }
+
+    /**
+     * Creates deck shuffled with the given random source.
+     *
+     * @param random Source of randomness, see {@link RandomSource}.
+     */
+    Deck(RandomSource random) {
+        this.random = random;
         newDeck();
     }
 
@@ -21,14 +52,39 @@ public class Deck {
      * Creates new sorted deck.
      */
     public void newDeck() {
-        deck =  Card.newDeck();
+        System.arraycopy(sortedDeck, 0, deck, 0, sortedDeck.length);
+        cursor = 0;
+        shuffledUpTo = 0;
+        shuffled = false;
     }
 
+    /**
+     * Shuffles cards that have not been dealt yet.
+     * Actual swaps are performed while dealing, see {@link Deck}.
+     */
     public void shuffle() {
-        Collections.shuffle(deck);
+        shuffled = true;
+        shuffledUpTo = cursor;
     }
 
-    public ArrayList<Card> deck() { return deck; }
+    /**
+     * Returns cards left in the deck in the order they will be dealt.
+     * Finishes pending shuffle, so it should not be used on the hot path.
+     *
+     * @return New list with cards left.
+     */
+    public ArrayList<Card> deck() {
+        if (shuffled)
+            while (shuffledUpTo < deck.length)
+                shuffleNext();
+
+        ArrayList<Card> cards = new ArrayList<>(deck.length - cursor);
+
+        for (int i = cursor; i < deck.length; i++)
+            cards.add(Card.of(deck[i]));
+
+        return cards;
+    }
 
     /**
      * Deals a card and removes it from the deck.
@@ -36,6 +92,34 @@ public class Deck {
      * @return Card to be dealt.
      */
     public Card dealCard() {
-        return deck.remove(0);
+        return Card.of(dealCardCode());
+    }
+
+    /**
+     * Deals a card and removes it from the deck.
+     *
+     * @return Code of the card to be dealt, see {@link Card#code()}.
+     */
+    public int dealCardCode() {
+        if (cursor == deck.length)
+            throw new IndexOutOfBoundsException("There are no cards left in the deck.");
+
+        if (shuffled && cursor == shuffledUpTo)
+            shuffleNext();
+
+        return deck[cursor++];
+    }
+
+    public int cardsLeft() {
+        return deck.length - cursor;
+    }
+
+    private void shuffleNext() {
+        // One step of Fisher-Yates: position shuffledUpTo gets a card drawn uniformly from the not yet shuffled ones.
+        int drawn = shuffledUpTo + random.nextInt(deck.length - shuffledUpTo);
+        byte card = deck[drawn];
+        deck[drawn] = deck[shuffledUpTo];
+        deck[shuffledUpTo] = card;
+        shuffledUpTo++;
     }
 }
@@ -0,0 +1,124 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of hand strengths keyed by hand bit mask (see {@link Hand}).
+ * Five-card hands are evaluated with {@link LookupEvaluator}, seven-card hands with {@link SevenCardEvaluator}.
+ * <p>
+ * Cache is direct mapped: every hand has exactly one slot and a new hand evicts the previous one from that slot.
+ * The 52-bit mask is scrambled with a bijection, so the slot index together with the rest of the scrambled mask
+ * identifies the hand and an entry (rest of the mask and strength) fits in one <code>long</code>.
+ * Entries are therefore read and written atomically without locks.
+ *
+ * @author Kacper Cienkosz
+ */
+public final class EvaluationCache {
+    /**
+     * Cache shared by all tables.
+     */
+    public static final EvaluationCache SHARED = new EvaluationCache(1 << 16);
+
+    private static final int MASK_BITS = Card.NUMBER_OF_CARDS;
+    private static final long MASK = (1L << MASK_BITS) - 1;
+    private static final int STRENGTH_BITS = 16;
+    private static final long STRENGTH_MASK = (1L << STRENGTH_BITS) - 1;
+    /**
+     * Odd multiplier, so multiplication modulo 2^52 is a bijection.
+     */
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L & MASK;
+
+    private final AtomicLongArray entries;
+    private final int slotBits;
+    private final long restMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates cache.
+     *
+     * @param capacity Maximal number of cached hands, rounded up to a power of two, at least 16.
+     */
+    public EvaluationCache(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30, but is " + capacity + ".");
+
+        slotBits = Math.max(4, 32 - Integer.numberOfLeadingZeros(capacity - 1));
+        restMask = (1L << (MASK_BITS - slotBits)) - 1;
+        entries = new AtomicLongArray(1 << slotBits);
+    }
+
+    /**
+     * Returns strength of the hand, evaluating it only if it is not cached.
+     *
+     * @param hand Hand consisting of 5 or 7 cards.
+     * @return Strength of the hand on the {@link LookupEvaluator} scale.
+     */
+    public int strength(long hand) {
+        long scrambled = (hand * MULTIPLIER) & MASK;
+        int slot = (int) (scrambled >>> (MASK_BITS - slotBits));
+        long rest = (scrambled & restMask) << STRENGTH_BITS;
+        long entry = entries.getAcquire(slot);
+
+        // Strengths are positive, so an empty slot never matches.
+        if ((entry & ~STRENGTH_MASK) == rest && (entry & STRENGTH_MASK) != 0) {
+            hits.increment();
+            return (int) (entry & STRENGTH_MASK);
+        }
+
+        misses.increment();
+        int strength = Hand.size(hand) == 7 ? SevenCardEvaluator.evaluate(hand) : LookupEvaluator.evaluate(hand);
+
+        if (entry != 0)
+            evictions.increment();
+
+        entries.setRelease(slot, rest | strength);
+        return strength;
+    }
+
+    /**
+     * Returns category of the hand, see {@link #strength(long)}.
+     *
+     * @param hand Hand consisting of 5 or 7 cards.
+     * @return Category of the hand.
+     */
+    public HandEvaluator.HandValues category(long hand) {
+        return LookupEvaluator.category(strength(hand));
+    }
+
+    public int capacity() {
+        return entries.length();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns fraction of lookups answered from the cache.
+     *
+     * @return Hit rate between 0 and 1, 0 if there were no lookups.
+     */
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hit rate %.3f, hits %d, misses %d, evictions %d, capacity %d",
+                hitRate(), hits(), misses(), evictions(), capacity());
+    }
+}
@@ -16,7 +16,7 @@ public class Game {
     private final HashMap<Integer, Player> players = new HashMap<>();
     private final ArrayList<Integer> playersToRemove = new ArrayList<>();
     private final ArrayList<Integer> biddingOrder = new ArrayList<>();
-    private final Deck deck = new Deck();
+    private final Deck deck;
     private final int numberOfPlayers;
     private final int id;
     private int ante = 5;
@@ -28,12 +28,27 @@ public class Game {
     Game(int id, int numberOfPlayers) {
         this.id = id;
         this.numberOfPlayers = numberOfPlayers;
+        this.deck = new Deck();
     }
 
     Game(int id, int numberOfPlayers, int ante) {
+        this(id, numberOfPlayers, ante, RandomSource.threadLocal());
+    }
+
+    /**
+     * Creates game with deck shuffled by the given random source.
+     * Game with {@link RandomSource#seeded(long)} deals the same cards every time it is replayed.
+     *
+     * @param id ID of the game.
+     * @param numberOfPlayers Number of players needed to start the game.
+     * @param ante Ante taken from each player at the beginning of the game.
+     * @param random Source of randomness used for shuffling.
+     */
+    Game(int id, int numberOfPlayers, int ante, RandomSource random) {
         this.id = id;
         this.numberOfPlayers = numberOfPlayers;
         this.ante = ante;
+        this.deck = new Deck(random);
     }
 
     /**
@@ -52,15 +67,20 @@ public class Game {
 
     /**
      * Removes player from the game.
-     * If game is running waits for the game to end.
+     * If game is running player folds and is removed when the game ends, otherwise player is removed at once.
      *
      * @param playerId ID of the player to be removed.
+     * @throws GameEndedByFoldingException If only one player is left in the running game.
      */
     public void removePlayer(Integer playerId) throws GameEndedByFoldingException {
-        if (gameOn)
-            fold(playerId);
+        if (!gameOn) {
+            players.remove(playerId);
+            biddingOrder.remove(playerId);
+            return;
+        }
 
         playersToRemove.add(playerId);
+        fold(playerId);
     }
 
     /**
@@ -83,8 +103,14 @@ public class Game {
         if (players.size() < numberOfPlayers)
             throw new IncorrectNumbersOfPlayersException("There is too few players to start a game.");
 
+        // Hand ended by folding skips the end of bidding, so bids of its last round are cleared here.
+        for (Player player: players.values())
+            player.setCurrentBid(0);
+
+        currentNegotiationStake = 0;
         takeAnte();
         gameOn = true;
+        foldedPlayers = 0;
         moveDealer();
 
         for (Player player: players.values()) {
@@ -129,7 +155,7 @@ public class Game {
             player.discardCard(cardsToDiscard.get(i) - i);
 
         for (int i = 0; i < cardsToDiscard.size(); i++)
-            player.receiveCard(deck.dealCard());
+            player.receiveCard(deck.dealCardCode());
     }
 
     /**
@@ -150,8 +176,9 @@ public class Game {
         player.bid(bidValue);
         player.setBidden(true);
 
-        if (currentNegotiationStake < player.getCurrentBid() + bidValue)
-            currentNegotiationStake = player.getCurrentBid() + bidValue;
+        // Current bid of the player already includes this bid.
+        if (currentNegotiationStake < player.getCurrentBid())
+            currentNegotiationStake = player.getCurrentBid();
 
         stake += bidValue;
     }
@@ -232,8 +259,12 @@ public class Game {
         gameOn = false;
         stake = 0;
 
-        for (Integer playerId: playersToRemove)
+        for (Integer playerId: playersToRemove) {
             players.remove(playerId);
+            biddingOrder.remove(playerId);
+        }
+
+        playersToRemove.clear();
 
         for (Integer playerId: players.keySet())
             playerPrizes.putIfAbsent(playerId, 0);
@@ -307,40 +338,29 @@ public class Game {
         for (int i = 0; i < numberOfCards; i++)
             for (Integer playerId: getBiddingOrder()) {
                 Player player = players.get(playerId);
-                player.receiveCard(deck.dealCard());
+                player.receiveCard(deck.dealCardCode());
             }
 
     }
 
-    private ArrayList<Integer> createRanking() {
-        // Create ranking of players' hand values storing their ids. Descending order.
-        ArrayList<Integer> ranking = new ArrayList<>(players.keySet());
-        HandEvaluator handEvaluator = new HandEvaluator();
-        ranking.sort((player1, player2) -> -handEvaluator.compareHands(players.get(player1).getHand(), players.get(player2).getHand()));
-
-        return ranking;
-    }
-
     private ArrayList<Integer> createWinnersList() {
-        ArrayList<Integer> winners = new ArrayList<>();
-        ArrayList<Integer> ranking = createRanking();
-        HandEvaluator handEvaluator = new HandEvaluator();
-
-        for (Integer playerId : ranking)
-            if (!hasFolded(playerId)) {
-                winners.add(playerId);
-                break;
-            }
+        // Strength of every hand is computed once; winners are collected in one pass without ranking the players.
+        ArrayList<Integer> winners = new ArrayList<>(players.size());
+        int bestStrength = 0;
 
-        for (int i = 0; i < ranking.size() - 1; i++) {
-            ArrayList<Card> hand1 = players.get(ranking.get(i)).getHand();
-            ArrayList<Card> hand2 = players.get(ranking.get(i + 1)).getHand();
+        for (Player player : players.values()) {
+            if (player.isFolded())
+                continue;
 
-            if (handEvaluator.compareHands(hand1, hand2) != 0)
-                break;
+            int strength = player.getHandStrength();
+
+            if (strength > bestStrength) {
+                bestStrength = strength;
+                winners.clear();
+            }
 
-            if (!hasFolded(ranking.get(i + 1)))
-                winners.add(ranking.get(i + 1));
+            if (strength == bestStrength)
+                winners.add(player.getId());
         }
 
         return winners;
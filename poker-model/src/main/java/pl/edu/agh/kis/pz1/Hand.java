@@ -0,0 +1,111 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Operations on hands stored as <code>long</code> bit masks.
+ * Bit number {@link Card#code()} is set when the card is in the hand, so a hand never allocates
+ * and its cards are always ordered: by rank descending first and by suit ascending then
+ * (the same order as {@link CardRankComparator}).
+ *
+ * @author Kacper Cienkosz
+ */
+public final class Hand {
+    /**
+     * Hand without cards.
+     */
+    public static final long EMPTY = 0L;
+
+    private Hand() {
+    }
+
+    /**
+     * Adds card to the hand.
+     *
+     * @param hand Hand.
+     * @param code Code of the card to be added.
+     * @return Hand with the card.
+     */
+    public static long with(long hand, int code) {
+        return hand | (1L << code);
+    }
+
+    /**
+     * Removes card from the hand.
+     *
+     * @param hand Hand.
+     * @param code Code of the card to be removed.
+     * @return Hand without the card.
+     */
+    public static long without(long hand, int code) {
+        return hand & ~(1L << code);
+    }
+
+    public static boolean contains(long hand, int code) {
+        return (hand & (1L << code)) != 0;
+    }
+
+    public static int size(long hand) {
+        return Long.bitCount(hand);
+    }
+
+    /**
+     * Returns code of the card at the given position in the hand.
+     *
+     * @param hand Hand.
+     * @param index Position of the card, cards are ordered by rank descending and by suit ascending.
+     * @return Code of the card.
+     */
+    public static int cardAt(long hand, int index) {
+        int remaining = index;
+
+        for (int rank = 12; rank >= 0 && remaining >= 0; rank--) {
+            int suits = (int) (hand >>> (rank << 2)) & 0xF;
+            int cardsOfRank = Integer.bitCount(suits);
+
+            if (remaining < cardsOfRank) {
+                for (; remaining > 0; remaining--)
+                    suits &= suits - 1;
+
+                return Card.code(rank, Integer.numberOfTrailingZeros(suits));
+            }
+
+            remaining -= cardsOfRank;
+        }
+
+        throw new IndexOutOfBoundsException("There is no card at index " + index + " in hand of size " + size(hand) + ".");
+    }
+
+    /**
+     * Creates hand from the list of cards.
+     *
+     * @param cards Cards.
+     * @return Hand.
+     */
+    public static long of(List<Card> cards) {
+        long hand = EMPTY;
+
+        for (Card card: cards)
+            hand = with(hand, card.code());
+
+        return hand;
+    }
+
+    /**
+     * Creates list of cards in the hand, ordered as described in {@link Hand}.
+     *
+     * @param hand Hand.
+     * @return New list with cards.
+     */
+    public static ArrayList<Card> toCards(long hand) {
+        ArrayList<Card> cards = new ArrayList<>(size(hand));
+
+        for (int rank = 12; rank >= 0; rank--)
+            for (int suit = 0; suit < 4; suit++)
+                if (contains(hand, Card.code(rank, suit)))
+                    cards.add(Card.of(Card.code(rank, suit)));
+
+        return cards;
+    }
+}
@@ -0,0 +1,356 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Table-driven five-card hand evaluator.
+ * Every five-card hand is mapped to a single integer strength with at most a few array lookups:
+ * hands with five different ranks are looked up by their rank bit pattern, all the others
+ * by the product of the primes assigned to their ranks.
+ * Greater strength means better hand and equal strengths mean dead draw, so comparing two hands is one integer compare.
+ * Category of the hand is kept in the upper bits of the strength, see {@link #category(int)}.
+ * Tables are loaded from the precomputed file (see {@link RankTables}) or generated when the class is initialized.
+ *
+ * @author Kacper Cienkosz
+ */
+public final class LookupEvaluator {
+    /**
+     * Number of bits used by the position of the hand inside its category.
+     */
+    static final int CATEGORY_SHIFT = 12;
+
+    private static final int[] PRIMES = { 2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41 };
+    private static final HandEvaluator.HandValues[] CATEGORIES = HandEvaluator.HandValues.values();
+
+    private static final int RANK_PATTERNS = 1 << 13;
+    static final int PRODUCT_TABLE_BITS = 14;
+    static final int PRODUCT_TABLE_MASK = (1 << PRODUCT_TABLE_BITS) - 1;
+    static final int PRODUCT_HASH_MULTIPLIER = 0x9E3779B9;
+
+    /**
+     * Strengths of flushes indexed by rank bit pattern.
+     */
+    static final int[] FLUSHES = new int[RANK_PATTERNS];
+    /**
+     * Strengths of hands with five different ranks without flush indexed by rank bit pattern.
+     */
+    static final int[] UNIQUE_RANKS = new int[RANK_PATTERNS];
+    /**
+     * Open addressing hash table from prime product to strength for hands with repeated ranks.
+     */
+    static final int[] PRODUCT_KEYS = new int[1 << PRODUCT_TABLE_BITS];
+    static final int[] PRODUCT_VALUES = new int[1 << PRODUCT_TABLE_BITS];
+
+    /**
+     * Evaluator form of every card indexed by {@link Card#code()}.
+     */
+    static final int[] CARDS = new int[Card.NUMBER_OF_CARDS];
+
+    static {
+        for (int code = 0; code < Card.NUMBER_OF_CARDS; code++)
+            CARDS[code] = encode(Card.rankOf(code), Card.suitOf(code));
+
+        if (!RankTables.read(RankTables.Section.FIVE_CARD_FLUSHES, FLUSHES, UNIQUE_RANKS, PRODUCT_KEYS, PRODUCT_VALUES))
+            new TableBuilder().build();
+    }
+
+    private LookupEvaluator() {
+    }
+
+    /**
+     * Encodes card into the integer form used by the evaluator.
+     * Bits 16-28 hold rank bit, bits 12-15 suit bit, bits 8-11 rank number and bits 0-7 rank prime.
+     *
+     * @param card Card to encode.
+     * @return Encoded card.
+     */
+    public static int encode(Card card) {
+        return CARDS[card.code()];
+    }
+
+    /**
+     * Encodes card given by its code into the integer form used by the evaluator.
+     *
+     * @param code Code of the card, see {@link Card#code()}.
+     * @return Encoded card.
+     */
+    public static int encode(int code) {
+        return CARDS[code];
+    }
+
+    static int encode(int rank, int suit) {
+        return (1 << (16 + rank)) | (1 << (12 + suit)) | (rank << 8) | PRIMES[rank];
+    }
+
+    /**
+     * Evaluates five encoded cards.
+     *
+     * @param c1 First card, see {@link #encode(Card)}.
+     * @param c2 Second card.
+     * @param c3 Third card.
+     * @param c4 Fourth card.
+     * @param c5 Fifth card.
+     * @return Strength of the hand.
+     */
+    public static int evaluate(int c1, int c2, int c3, int c4, int c5) {
+        int rankPattern = (c1 | c2 | c3 | c4 | c5) >>> 16;
+
+        if ((c1 & c2 & c3 & c4 & c5 & 0xF000) != 0)
+            return FLUSHES[rankPattern];
+
+        int strength = UNIQUE_RANKS[rankPattern];
+        if (strength != 0)
+            return strength;
+
+        return byProduct((c1 & 0xFF) * (c2 & 0xFF) * (c3 & 0xFF) * (c4 & 0xFF) * (c5 & 0xFF));
+    }
+
+    /**
+     * Evaluates hand consisting of exactly five cards.
+     *
+     * @param hand Hand to evaluate.
+     * @return Strength of the hand.
+     */
+    public static int evaluate(List<Card> hand) {
+        if (hand.size() != 5)
+            throw new IllegalArgumentException("Hand must consist of 5 cards, but has " + hand.size() + ".");
+
+        return evaluate(encode(hand.get(0)), encode(hand.get(1)), encode(hand.get(2)),
+                encode(hand.get(3)), encode(hand.get(4)));
+    }
+
+    /**
+     * Evaluates hand stored as bit mask, see {@link Hand}.
+     *
+     * @param hand Hand consisting of exactly 5 cards.
+     * @return Strength of the hand.
+     */
+    public static int evaluate(long hand) {
+        if (Long.bitCount(hand) != 5)
+            throw new IllegalArgumentException("Hand must consist of 5 cards, but has " + Long.bitCount(hand) + ".");
+
+        int c1 = CARDS[Long.numberOfTrailingZeros(hand)];
+        hand &= hand - 1;
+        int c2 = CARDS[Long.numberOfTrailingZeros(hand)];
+        hand &= hand - 1;
+        int c3 = CARDS[Long.numberOfTrailingZeros(hand)];
+        hand &= hand - 1;
+        int c4 = CARDS[Long.numberOfTrailingZeros(hand)];
+        hand &= hand - 1;
+        int c5 = CARDS[Long.numberOfTrailingZeros(hand)];
+
+        return evaluate(c1, c2, c3, c4, c5);
+    }
+
+    /**
+     * Returns category of the hand with the given strength.
+     *
+     * @param strength Strength returned by the evaluator.
+     * @return Category of the hand.
+     */
+    public static HandEvaluator.HandValues category(int strength) {
+        return CATEGORIES[strength >>> CATEGORY_SHIFT];
+    }
+
+    /**
+     * Returns strength of the flush with the given rank pattern.
+     *
+     * @param rankPattern Bit pattern with exactly five ranks set.
+     * @return Strength of the flush.
+     */
+    static int flush(int rankPattern) {
+        return FLUSHES[rankPattern];
+    }
+
+    /**
+     * Returns strength of five cards that do not form a flush.
+     *
+     * @param rankPattern Bit pattern of ranks present in the hand.
+     * @param product Product of primes of all five ranks.
+     * @return Strength of the hand.
+     */
+    static int unsuited(int rankPattern, int product) {
+        int strength = UNIQUE_RANKS[rankPattern];
+        if (strength != 0)
+            return strength;
+
+        return byProduct(product);
+    }
+
+    static int prime(int rank) {
+        return PRIMES[rank];
+    }
+
+    static int byProduct(int product) {
+        int slot = productSlot(product);
+
+        while (PRODUCT_KEYS[slot] != product)
+            slot = (slot + 1) & PRODUCT_TABLE_MASK;
+
+        return PRODUCT_VALUES[slot];
+    }
+
+    static int productSlot(int product) {
+        return (product * PRODUCT_HASH_MULTIPLIER) >>> (32 - PRODUCT_TABLE_BITS);
+    }
+
+    /**
+     * Builds all the tables by enumerating every multiset of five ranks.
+     * Hands are first described by raw keys (category followed by tie breaking ranks as nibbles),
+     * then raw keys of each category are numbered in ascending order.
+     */
+    private static final class TableBuilder {
+        private final int[][] keysByCategory = new int[CATEGORIES.length][];
+        private final int[] keysCount = new int[CATEGORIES.length];
+        private final int[] counts = new int[13];
+        private boolean filling = false;
+
+        void build() {
+            for (int i = 0; i < CATEGORIES.length; i++)
+                keysByCategory[i] = new int[4096];
+
+            enumerate(12, 5);
+
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                int[] keys = Arrays.copyOf(keysByCategory[i], keysCount[i]);
+                Arrays.sort(keys);
+                keysByCategory[i] = keys;
+            }
+
+            filling = true;
+            enumerate(12, 5);
+        }
+
+        private void enumerate(int rank, int cardsLeft) {
+            if (cardsLeft == 0) {
+                visit();
+                return;
+            }
+
+            if (rank < 0)
+                return;
+
+            for (int count = Math.min(4, cardsLeft); count >= 0; count--) {
+                counts[rank] = count;
+                enumerate(rank - 1, cardsLeft - count);
+            }
+
+            counts[rank] = 0;
+        }
+
+        private void visit() {
+            int rankPattern = 0;
+            int product = 1;
+
+            for (int rank = 0; rank < 13; rank++) {
+                if (counts[rank] > 0)
+                    rankPattern |= 1 << rank;
+
+                for (int i = 0; i < counts[rank]; i++)
+                    product *= PRIMES[rank];
+            }
+
+            if (Integer.bitCount(rankPattern) == 5) {
+                int plain = rawKey(counts, false);
+                int flush = rawKey(counts, true);
+
+                if (filling) {
+                    UNIQUE_RANKS[rankPattern] = strength(plain);
+                    FLUSHES[rankPattern] = strength(flush);
+                }
+                else {
+                    collect(plain);
+                    collect(flush);
+                }
+
+                return;
+            }
+
+            int key = rawKey(counts, false);
+
+            if (!filling) {
+                collect(key);
+                return;
+            }
+
+            int slot = productSlot(product);
+            while (PRODUCT_KEYS[slot] != 0)
+                slot = (slot + 1) & PRODUCT_TABLE_MASK;
+
+            PRODUCT_KEYS[slot] = product;
+            PRODUCT_VALUES[slot] = strength(key);
+        }
+
+        private void collect(int rawKey) {
+            int category = rawKey >>> 20;
+            keysByCategory[category][keysCount[category]++] = rawKey;
+        }
+
+        private int strength(int rawKey) {
+            int category = rawKey >>> 20;
+            int position = Arrays.binarySearch(keysByCategory[category], rawKey);
+
+            return (category << CATEGORY_SHIFT) | (position + 1);
+        }
+    }
+
+    /**
+     * Computes raw key of five cards described by rank counts.
+     * Raw key holds the category in bits 20 and above, followed by ranks deciding about ties,
+     * the most important one in the highest nibble.
+     *
+     * @param counts Number of cards of each rank, summing up to 5.
+     * @param flush Whether all cards share one suit.
+     * @return Raw key of the hand.
+     */
+    static int rawKey(int[] counts, boolean flush) {
+        int tieBreak = 0;
+        int groups = 0;
+        int rankPattern = 0;
+        int biggestGroup = 0;
+
+        // Ranks ordered by number of cards first and by rank then.
+        for (int count = 4; count >= 1; count--)
+            for (int rank = 12; rank >= 0; rank--)
+                if (counts[rank] == count) {
+                    tieBreak = (tieBreak << 4) | rank;
+                    groups++;
+                    rankPattern |= 1 << rank;
+                    biggestGroup = Math.max(biggestGroup, count);
+                }
+
+        HandEvaluator.HandValues category;
+
+        if (groups == 5) {
+            int straightHigh = straightHigh(rankPattern);
+
+            if (straightHigh != -1) {
+                tieBreak = straightHigh;
+                category = flush ? HandEvaluator.HandValues.STRAIGHTFLUSH : HandEvaluator.HandValues.STRAIGHT;
+            }
+            else
+                category = flush ? HandEvaluator.HandValues.FLUSH : HandEvaluator.HandValues.HIGHCARD;
+        }
+        else if (biggestGroup == 4)
+            category = HandEvaluator.HandValues.FOUROFAKIND;
+        else if (biggestGroup == 3)
+            category = groups == 2 ? HandEvaluator.HandValues.FULLHOUSE : HandEvaluator.HandValues.THREEOFAKIND;
+        else
+            category = groups == 3 ? HandEvaluator.HandValues.TWOPAIR : HandEvaluator.HandValues.PAIR;
+
+        return (category.ordinal() << 20) | tieBreak;
+    }
+
+    private static int straightHigh(int rankPattern) {
+        // Ace can be treated as the lowest or the highest value card.
+        for (int high = 12; high >= 4; high--)
+            if (rankPattern == 0x1F << (high - 4))
+                return high;
+
+        if (rankPattern == 0x100F)
+            return 3;
+
+        return -1;
+    }
+}
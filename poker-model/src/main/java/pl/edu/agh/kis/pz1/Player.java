@@ -10,7 +10,14 @@ import java.util.ArrayList;
  * @author Kacper Cienkosz
  */
 public class Player {
-    private final ArrayList<Card> hand = new ArrayList<>();
+    /**
+     * Cards of the player stored as bit mask, see {@link Hand}.
+     */
+    private long hand = Hand.EMPTY;
+    /**
+     * Strength of the hand, 0 if it has not been evaluated since the hand changed.
+     */
+    private int handStrength = 0;
     private final Integer id;
     private int currentBid = 0 ;
     private int allGameBid = 0;
@@ -33,15 +40,26 @@ public class Player {
      * @param card Card to be added.
      */
     public void receiveCard(Card card) {
-        hand.add(card);
+        receiveCard(card.code());
+    }
+
+    /**
+     * Adds card to hand.
+     *
+     * @param code Code of the card to be added, see {@link Card#code()}.
+     */
+    public void receiveCard(int code) {
+        hand = Hand.with(hand, code);
+        handStrength = 0;
     }
 
     /**
      * Removes card from hand.
-     * @param index Index of the card to be removed.
+     * @param index Index of the card to be removed. Cards are ordered as in {@link #getHand()}.
      */
     public void discardCard(int index) {
-        hand.remove(index);
+        hand = Hand.without(hand, Hand.cardAt(hand, index));
+        handStrength = 0;
     }
 
     /**
@@ -68,20 +86,42 @@ public class Player {
         credit += prizeValue;
     }
 
+    /**
+     * Returns cards of the player sorted by rank descending.
+     *
+     * @return New list with player's cards.
+     */
     public ArrayList<Card> getHand() {
-        hand.sort(new CardRankComparator());
+        return Hand.toCards(hand);
+    }
+
+    public long getHandMask() {
         return hand;
     }
 
+    /**
+     * Returns strength of the hand, evaluated once per change of the hand with {@link EvaluationCache#SHARED}.
+     *
+     * @return Strength on the {@link LookupEvaluator} scale.
+     */
+    public int getHandStrength() {
+        if (handStrength == 0)
+            handStrength = EvaluationCache.SHARED.strength(hand);
+
+        return handStrength;
+    }
+
     public HandEvaluator.HandValues getHandEvaluation() {
-        HandEvaluator handEvaluator = new HandEvaluator();
-        return handEvaluator.evaluate(getHand());
+        return LookupEvaluator.category(getHandStrength());
     }
 
     /**
      * Clears players hand.
      */
-    public void clearHand() { hand.clear(); }
+    public void clearHand() {
+        hand = Hand.EMPTY;
+        handStrength = 0;
+    }
 
     public int getCredit() { return credit; }
 
@@ -0,0 +1,69 @@
+package pl.edu.agh.kis.pz1;
+
+/**
+ * Source of random numbers used for shuffling the deck.
+ * Pick {@link #threadLocal()} for simulations, {@link #secure()} for tables played for real stakes
+ * and {@link #seeded(long)} to replay the same deals again.
+ *
+ * @author Kacper Cienkosz
+ */
+public interface RandomSource {
+    /**
+     * Returns uniformly distributed integer.
+     *
+     * @param bound Upper bound (exclusive), must be positive.
+     * @return Integer between 0 (inclusive) and bound (exclusive).
+     */
+    int nextInt(int bound);
+
+    /**
+     * Fast generator of the calling thread, shared by nothing but that thread, so it is never contended.
+     *
+     * @return Random source.
+     */
+    static RandomSource threadLocal() {
+        return ThreadLocalRandomSource.INSTANCE;
+    }
+
+    /**
+     * Cryptographically strong generator backed by {@link java.security.SecureRandom}.
+     *
+     * @return New random source.
+     */
+    static RandomSource secure() {
+        return new SecureRandomSource();
+    }
+
+    /**
+     * Deterministic generator (xoshiro256**). Two sources with the same seed return the same numbers,
+     * so a deck using it deals the same cards. It is not thread safe.
+     *
+     * @param seed Seed of the generator.
+     * @return New random source.
+     */
+    static RandomSource seeded(long seed) {
+        return new SeededRandomSource(seed);
+    }
+
+    /**
+     * Creates random source described by name: "fast", "secure" or a number used as seed.
+     *
+     * @param name Name of the random source.
+     * @return Random source.
+     * @throws IllegalArgumentException if name is not recognized.
+     */
+    static RandomSource byName(String name) {
+        switch (name) {
+            case "fast" -> { return threadLocal(); }
+            case "secure" -> { return secure(); }
+            default -> {
+                try {
+                    return seeded(Long.parseLong(name));
+                }
+                catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Unknown random source: " + name + ".");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Precomputed tables of {@link LookupEvaluator} and {@link SevenCardEvaluator} stored in a binary file.
+ * File is mapped read-only with {@link FileChannel#map}, so all JVMs on a host read it from the same page cache,
+ * and its sections are copied in bulk into the evaluator arrays. If the file is missing, has another version
+ * or a wrong checksum, evaluators generate their tables in process as before.
+ * <p>
+ * File is chosen with property <code>poker.tables</code> (default <code>rank-tables.bin</code> in the working
+ * directory, <code>none</code> disables loading). Layout, little endian: magic, version, number of sections,
+ * CRC32 of the rest of the file, then every section as its length followed by its values.
+ * <p>
+ * Usage: <code>java -cp poker-model.jar pl.edu.agh.kis.pz1.RankTables generate|report [file]</code>.
+ * <code>generate</code> writes the file, <code>report</code> starts two JVMs, with and without the file,
+ * and prints their startup time and resident memory.
+ *
+ * @author Kacper Cienkosz
+ */
+final class RankTables {
+    static final String FILE_PROPERTY = "poker.tables";
+    static final String DEFAULT_FILE = "rank-tables.bin";
+    private static final String DISABLED = "none";
+
+    private static final int MAGIC = 0x54524B50;
+    /**
+     * Version of the tables, must be changed whenever the strength scale or table layout changes.
+     */
+    static final int VERSION = 1;
+    private static final int HEADER_INTS = 4;
+
+    /**
+     * Sections of the file in the order they are stored.
+     */
+    enum Section { FIVE_CARD_FLUSHES, FIVE_CARD_UNIQUE_RANKS, FIVE_CARD_PRODUCT_KEYS, FIVE_CARD_PRODUCT_VALUES,
+        SEVEN_CARD_FLUSHES, SEVEN_CARD_RANK_COUNTS }
+
+    private static final Section[] SECTIONS = Section.values();
+
+    private RankTables() {
+    }
+
+    /**
+     * Mapped file from property <code>poker.tables</code>, initialized on first use.
+     */
+    private static final class Default {
+        static final String SOURCE = System.getProperty(FILE_PROPERTY, DEFAULT_FILE);
+        static final IntBuffer TABLES = DISABLED.equals(SOURCE) ? null : map(Path.of(SOURCE));
+    }
+
+    /**
+     * Fills consecutive sections from the default file.
+     *
+     * @param first Section copied into the first table.
+     * @param tables Tables to fill, the following ones from the following sections.
+     * @return <code>true</code> if tables were loaded, <code>false</code> if they have to be generated.
+     */
+    static boolean read(Section first, int[]... tables) {
+        return read(Default.TABLES, first, tables);
+    }
+
+    static boolean read(IntBuffer file, Section first, int[]... tables) {
+        if (file == null)
+            return false;
+
+        int[] offsets = new int[tables.length];
+        int position = HEADER_INTS;
+
+        // All lengths are checked before anything is copied, so a failed read leaves the tables untouched.
+        for (int section = 0; section < first.ordinal() + tables.length; section++) {
+            int length = file.get(position);
+
+            if (section >= first.ordinal()) {
+                if (length != tables[section - first.ordinal()].length)
+                    return false;
+
+                offsets[section - first.ordinal()] = position + 1;
+            }
+
+            position += 1 + length;
+        }
+
+        for (int i = 0; i < tables.length; i++)
+            file.get(offsets[i], tables[i]);
+
+        return true;
+    }
+
+    /**
+     * Maps the file and validates its header and checksum.
+     *
+     * @param path Path to the file.
+     * @return View of the whole file, <code>null</code> if it is missing or invalid.
+     */
+    static IntBuffer map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+
+            if (bytes.capacity() < HEADER_INTS * Integer.BYTES || bytes.capacity() % Integer.BYTES != 0)
+                return null;
+
+            IntBuffer ints = bytes.asIntBuffer();
+
+            if (ints.get(0) != MAGIC || ints.get(1) != VERSION || ints.get(2) != SECTIONS.length)
+                return null;
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes.slice(HEADER_INTS * Integer.BYTES, bytes.capacity() - HEADER_INTS * Integer.BYTES));
+
+            if ((int) crc.getValue() != ints.get(3) || !sectionsFit(ints))
+                return null;
+
+            return ints;
+        }
+        catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static boolean sectionsFit(IntBuffer ints) {
+        int position = HEADER_INTS;
+
+        for (int section = 0; section < SECTIONS.length; section++) {
+            if (position >= ints.capacity() || ints.get(position) < 0)
+                return false;
+
+            position += 1 + ints.get(position);
+        }
+
+        return position == ints.capacity();
+    }
+
+    /**
+     * Writes tables of both evaluators to the file. The file is replaced atomically,
+     * so processes mapping it at the same time see either the old or the new file.
+     *
+     * @param path Path to the file.
+     * @throws IOException If the file cannot be written.
+     */
+    static void write(Path path) throws IOException {
+        int size = HEADER_INTS;
+
+        for (Section section : SECTIONS)
+            size += 1 + table(section).length;
+
+        ByteBuffer bytes = ByteBuffer.allocate(size * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        IntBuffer ints = bytes.asIntBuffer();
+        ints.put(MAGIC).put(VERSION).put(SECTIONS.length).put(0);
+
+        for (Section section : SECTIONS)
+            ints.put(table(section).length).put(table(section));
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.slice(HEADER_INTS * Integer.BYTES, bytes.capacity() - HEADER_INTS * Integer.BYTES));
+        ints.put(3, (int) crc.getValue());
+
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+
+        try {
+            Files.write(temporary, bytes.array());
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static int[] table(Section section) {
+        return switch (section) {
+            case FIVE_CARD_FLUSHES -> LookupEvaluator.FLUSHES;
+            case FIVE_CARD_UNIQUE_RANKS -> LookupEvaluator.UNIQUE_RANKS;
+            case FIVE_CARD_PRODUCT_KEYS -> LookupEvaluator.PRODUCT_KEYS;
+            case FIVE_CARD_PRODUCT_VALUES -> LookupEvaluator.PRODUCT_VALUES;
+            case SEVEN_CARD_FLUSHES -> SevenCardEvaluator.FLUSHES;
+            case SEVEN_CARD_RANK_COUNTS -> SevenCardEvaluator.RANK_COUNTS;
+        };
+    }
+
+    /**
+     * Source of the tables used by this JVM.
+     *
+     * @return Path of the mapped file or "generated".
+     */
+    static String source() {
+        return Default.TABLES != null ? Default.SOURCE : "generated";
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String command = args.length > 0 ? args[0] : "";
+        Path path = Path.of(args.length > 1 ? args[1] : System.getProperty(FILE_PROPERTY, DEFAULT_FILE));
+
+        switch (command) {
+            case "generate" -> {
+                // Tables are initialized (generated or loaded from a valid file) before they are written.
+                SevenCardEvaluator.evaluate(0x7FL);
+                write(path);
+                System.out.println("Rank tables version " + VERSION + " written to " + path + " (" + Files.size(path) + " bytes).");
+            }
+            case "report" -> {
+                if (map(path) == null) {
+                    System.out.println("File " + path + " is missing or invalid, run generate first.");
+                    return;
+                }
+
+                System.out.println("With file:    " + startChild(path.toString()));
+                System.out.println("Without file: " + startChild(DISABLED));
+            }
+            case "startup" -> System.out.println(measureStartup());
+            default -> System.out.println("Usage: RankTables generate|report [file]");
+        }
+    }
+
+    private static String startChild(String tables) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-D" + FILE_PROPERTY + "=" + tables, "-cp", System.getProperty("java.class.path"),
+                RankTables.class.getName(), "startup").redirectErrorStream(true).start();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            List<String> lines = reader.lines().toList();
+            process.waitFor();
+
+            return String.join(" ", lines);
+        }
+    }
+
+    private static String measureStartup() {
+        long rssBefore = residentKilobytes();
+        long start = System.nanoTime();
+        SevenCardEvaluator.evaluate(0x7FL);
+        LookupEvaluator.evaluate(0x1FL);
+        long elapsed = System.nanoTime() - start;
+        long rssAfter = residentKilobytes();
+
+        return String.format("tables %s, initialization %.1f ms, resident memory %d kB (+%d kB)",
+                source(), elapsed / 1e6, rssAfter, rssAfter - rssBefore);
+    }
+
+    private static long residentKilobytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status")))
+                if (line.startsWith("VmRSS:"))
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+        }
+        catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+
+        return -1;
+    }
+}
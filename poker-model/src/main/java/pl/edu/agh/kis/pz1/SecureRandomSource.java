@@ -0,0 +1,17 @@
+package pl.edu.agh.kis.pz1;
+
+import java.security.SecureRandom;
+
+/**
+ * Random source backed by {@link SecureRandom}.
+ *
+ * @author Kacper Cienkosz
+ */
+final class SecureRandomSource implements RandomSource {
+    private final SecureRandom random = new SecureRandom();
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+}
@@ -0,0 +1,63 @@
+package pl.edu.agh.kis.pz1;
+
+/**
+ * Deterministic xoshiro256** generator.
+ * State is initialized from the seed with SplitMix64, bounded integers are drawn with Lemire's method.
+ *
+ * @author Kacper Cienkosz
+ */
+final class SeededRandomSource implements RandomSource {
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    SeededRandomSource(long seed) {
+        long x = seed;
+        s0 = splitMix(x += 0x9E3779B97F4A7C15L);
+        s1 = splitMix(x += 0x9E3779B97F4A7C15L);
+        s2 = splitMix(x += 0x9E3779B97F4A7C15L);
+        s3 = splitMix(x + 0x9E3779B97F4A7C15L);
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0)
+            throw new IllegalArgumentException("Bound must be positive.");
+
+        // Multiply 32 random bits by bound and take the upper half, rejecting the few values that cause bias.
+        long product = (nextLong() >>> 32) * bound;
+        long low = product & 0xFFFFFFFFL;
+
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+
+            while (low < threshold) {
+                product = (nextLong() >>> 32) * bound;
+                low = product & 0xFFFFFFFFL;
+            }
+        }
+
+        return (int) (product >>> 32);
+    }
+
+    long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+
+        return result;
+    }
+
+    private static long splitMix(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+}
@@ -0,0 +1,213 @@
+package pl.edu.agh.kis.pz1;
+
+/**
+ * Table-driven evaluator of the best five-card hand out of seven cards, used in community card variants.
+ * Returns strengths on the same scale as {@link LookupEvaluator}.
+ * Seven cards can contain at most one flush and a flush excludes full house and four of a kind,
+ * so a hand is evaluated either with the flush table indexed by rank pattern of the flush suit
+ * or with the table indexed by perfect hash of the rank counts.
+ * Both tables come from the precomputed file if it is available, see {@link RankTables}.
+ *
+ * @author Kacper Cienkosz
+ */
+public final class SevenCardEvaluator {
+    private static final int CARDS = 7;
+    /**
+     * Number of multisets of seven ranks with at most four cards of each rank.
+     */
+    static final int RANK_COUNT_HANDS = 49205;
+
+    /**
+     * Best flush or straight flush indexed by rank pattern of the flush suit.
+     */
+    static final int[] FLUSHES = new int[1 << 13];
+    /**
+     * Best hand without flush indexed by {@link #rankCountIndex(long)}.
+     */
+    static final int[] RANK_COUNTS = new int[RANK_COUNT_HANDS];
+    /**
+     * OFFSETS[(rank * 8 + cardsLeft) * 5 + count] is number of rank count vectors preceding vectors
+     * that have <code>count</code> cards of <code>rank</code> when <code>cardsLeft</code> cards
+     * are to be distributed among ranks up to <code>rank</code>.
+     */
+    private static final int[] OFFSETS = new int[13 * 8 * 5];
+
+    static {
+        buildOffsets();
+
+        if (!RankTables.read(RankTables.Section.SEVEN_CARD_FLUSHES, FLUSHES, RANK_COUNTS)) {
+            buildFlushes();
+            buildRankCounts(12, CARDS, 0L);
+        }
+    }
+
+    private SevenCardEvaluator() {
+    }
+
+    /**
+     * Evaluates seven cards.
+     *
+     * @param c1 Code of the first card, see {@link Card#code()}.
+     * @param c2 Code of the second card.
+     * @param c3 Code of the third card.
+     * @param c4 Code of the fourth card.
+     * @param c5 Code of the fifth card.
+     * @param c6 Code of the sixth card.
+     * @param c7 Code of the seventh card.
+     * @return Strength of the best five-card hand.
+     */
+    public static int evaluate(int c1, int c2, int c3, int c4, int c5, int c6, int c7) {
+        // Card code without suit bits is four times the rank, so it shifts straight to the rank nibble.
+        int suits = (1 << ((c1 & 3) << 2)) + (1 << ((c2 & 3) << 2)) + (1 << ((c3 & 3) << 2))
+                + (1 << ((c4 & 3) << 2)) + (1 << ((c5 & 3) << 2)) + (1 << ((c6 & 3) << 2)) + (1 << ((c7 & 3) << 2));
+        int flushSuits = (suits + 0x3333) & 0x8888;
+
+        if (flushSuits != 0) {
+            int suit = Integer.numberOfTrailingZeros(flushSuits) >>> 2;
+
+            return FLUSHES[rankIfSuited(c1, suit) | rankIfSuited(c2, suit) | rankIfSuited(c3, suit)
+                    | rankIfSuited(c4, suit) | rankIfSuited(c5, suit) | rankIfSuited(c6, suit) | rankIfSuited(c7, suit)];
+        }
+
+        long counts = (1L << (c1 & ~3)) + (1L << (c2 & ~3)) + (1L << (c3 & ~3)) + (1L << (c4 & ~3))
+                + (1L << (c5 & ~3)) + (1L << (c6 & ~3)) + (1L << (c7 & ~3));
+
+        return RANK_COUNTS[rankCountIndex(counts)];
+    }
+
+    /**
+     * Evaluates hand stored as bit mask, see {@link Hand}.
+     *
+     * @param hand Hand consisting of exactly 7 cards.
+     * @return Strength of the best five-card hand.
+     */
+    public static int evaluate(long hand) {
+        if (Long.bitCount(hand) != CARDS)
+            throw new IllegalArgumentException("Hand must consist of 7 cards, but has " + Long.bitCount(hand) + ".");
+
+        int c1 = Long.numberOfTrailingZeros(hand);
+        hand &= hand - 1;
+        int c2 = Long.numberOfTrailingZeros(hand);
+        hand &= hand - 1;
+        int c3 = Long.numberOfTrailingZeros(hand);
+        hand &= hand - 1;
+        int c4 = Long.numberOfTrailingZeros(hand);
+        hand &= hand - 1;
+        int c5 = Long.numberOfTrailingZeros(hand);
+        hand &= hand - 1;
+        int c6 = Long.numberOfTrailingZeros(hand);
+        hand &= hand - 1;
+        int c7 = Long.numberOfTrailingZeros(hand);
+
+        return evaluate(c1, c2, c3, c4, c5, c6, c7);
+    }
+
+    private static int rankIfSuited(int code, int suit) {
+        return (code & 3) == suit ? 1 << (code >>> 2) : 0;
+    }
+
+    /**
+     * Computes perfect hash of seven ranks given as counts of cards of each rank.
+     *
+     * @param counts Counts packed in nibbles, nibble number <code>rank</code> holds count of that rank.
+     * @return Index between 0 and {@link #RANK_COUNT_HANDS} - 1.
+     */
+    static int rankCountIndex(long counts) {
+        int index = 0;
+        int cardsLeft = CARDS;
+
+        // Ranks without cards add nothing, so only the nonempty nibbles are visited, from the highest one.
+        while (counts != 0) {
+            int shift = (63 - Long.numberOfLeadingZeros(counts)) & ~3;
+            int count = (int) (counts >>> shift) & 0xF;
+            index += OFFSETS[((shift << 1) + cardsLeft) * 5 + count];
+            cardsLeft -= count;
+            counts &= ~(0xFL << shift);
+        }
+
+        return index;
+    }
+
+    private static void buildOffsets() {
+        // ways[r][n] - number of ways to distribute n cards among r ranks, at most 4 of each rank.
+        int[][] ways = new int[14][CARDS + 1];
+        ways[0][0] = 1;
+
+        for (int ranks = 1; ranks <= 13; ranks++)
+            for (int cards = 0; cards <= CARDS; cards++)
+                for (int count = 0; count <= Math.min(4, cards); count++)
+                    ways[ranks][cards] += ways[ranks - 1][cards - count];
+
+        for (int rank = 0; rank < 13; rank++)
+            for (int cardsLeft = 0; cardsLeft <= CARDS; cardsLeft++) {
+                int offset = 0;
+
+                for (int count = 0; count <= 4; count++) {
+                    OFFSETS[((rank << 3) + cardsLeft) * 5 + count] = offset;
+
+                    if (count <= cardsLeft)
+                        offset += ways[rank][cardsLeft - count];
+                }
+            }
+    }
+
+    private static void buildFlushes() {
+        for (int rankPattern = 0; rankPattern < FLUSHES.length; rankPattern++) {
+            if (Integer.bitCount(rankPattern) < 5)
+                continue;
+
+            // The highest five ranks give the best flush unless the pattern contains straight flush.
+            int highest = rankPattern;
+            while (Integer.bitCount(highest) > 5)
+                highest &= highest - 1;
+
+            int best = LookupEvaluator.flush(highest);
+
+            for (int low = 0; low <= 8; low++)
+                if ((rankPattern & (0x1F << low)) == 0x1F << low)
+                    best = Math.max(best, LookupEvaluator.flush(0x1F << low));
+
+            if ((rankPattern & 0x100F) == 0x100F)
+                best = Math.max(best, LookupEvaluator.flush(0x100F));
+
+            FLUSHES[rankPattern] = best;
+        }
+    }
+
+    private static void buildRankCounts(int rank, int cardsLeft, long counts) {
+        if (cardsLeft == 0) {
+            RANK_COUNTS[rankCountIndex(counts)] = bestUnsuited(12, 5, counts, 0, 1);
+            return;
+        }
+
+        if (rank < 0)
+            return;
+
+        for (int count = 0; count <= Math.min(4, cardsLeft); count++)
+            buildRankCounts(rank - 1, cardsLeft - count, counts | ((long) count << (rank << 2)));
+    }
+
+    private static int bestUnsuited(int rank, int cardsLeft, long counts, int rankPattern, int product) {
+        // Chooses five of the available ranks in every possible way and returns the best result.
+        if (cardsLeft == 0)
+            return LookupEvaluator.unsuited(rankPattern, product);
+
+        if (rank < 0)
+            return 0;
+
+        int available = (int) (counts >>> (rank << 2)) & 0xF;
+        int best = 0;
+
+        for (int count = 0; count <= Math.min(available, cardsLeft); count++) {
+            int pattern = count > 0 ? rankPattern | (1 << rank) : rankPattern;
+            int newProduct = product;
+
+            for (int i = 0; i < count; i++)
+                newProduct *= LookupEvaluator.prime(rank);
+
+            best = Math.max(best, bestUnsuited(rank - 1, cardsLeft - count, counts, pattern, newProduct));
+        }
+
+        return best;
+    }
+}
@@ -0,0 +1,20 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random source delegating to {@link ThreadLocalRandom} of the calling thread.
+ *
+ * @author Kacper Cienkosz
+ */
+final class ThreadLocalRandomSource implements RandomSource {
+    static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+
+    private ThreadLocalRandomSource() {
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+}
@@ -0,0 +1,69 @@
+package pl.edu.agh.kis.pz1;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Batch evaluation with the JDK Vector API.
+ * Follows {@link LookupEvaluator#evaluate(int, int, int, int, int)} lane by lane: table lookups become gathers
+ * and probing of the prime product table repeats only for lanes that have not found their product yet.
+ * Compiled only with Maven profile <code>vector</code>, as the module is incubating, and loaded
+ * by {@link BatchEvaluator} only when module <code>jdk.incubator.vector</code> is present.
+ *
+ * @author Kacper Cienkosz
+ */
+final class VectorBatchKernel implements BatchEvaluator.Kernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void evaluate(int[] cards, int count, int[] strengths) {
+        int lanes = SPECIES.length();
+        int bound = SPECIES.loopBound(count);
+        int[] indices = new int[lanes];
+        int i = 0;
+
+        for (; i < bound; i += lanes) {
+            IntVector c1 = IntVector.fromArray(SPECIES, LookupEvaluator.CARDS, 0, cards, i);
+            IntVector c2 = IntVector.fromArray(SPECIES, LookupEvaluator.CARDS, 0, cards, count + i);
+            IntVector c3 = IntVector.fromArray(SPECIES, LookupEvaluator.CARDS, 0, cards, 2 * count + i);
+            IntVector c4 = IntVector.fromArray(SPECIES, LookupEvaluator.CARDS, 0, cards, 3 * count + i);
+            IntVector c5 = IntVector.fromArray(SPECIES, LookupEvaluator.CARDS, 0, cards, 4 * count + i);
+
+            c1.or(c2).or(c3).or(c4).or(c5).lanewise(VectorOperators.LSHR, 16).intoArray(indices, 0);
+            VectorMask<Integer> flush = c1.and(c2).and(c3).and(c4).and(c5).and(0xF000).compare(VectorOperators.NE, 0);
+
+            IntVector unique = IntVector.fromArray(SPECIES, LookupEvaluator.UNIQUE_RANKS, 0, indices, 0);
+            IntVector result = unique.blend(IntVector.fromArray(SPECIES, LookupEvaluator.FLUSHES, 0, indices, 0), flush);
+            VectorMask<Integer> pending = result.compare(VectorOperators.EQ, 0);
+
+            if (pending.anyTrue())
+                result = byProduct(result, pending, c1.and(0xFF).mul(c2.and(0xFF)).mul(c3.and(0xFF))
+                        .mul(c4.and(0xFF)).mul(c5.and(0xFF)), indices);
+
+            result.intoArray(strengths, i);
+        }
+
+        BatchEvaluator.evaluateScalar(cards, count, strengths, i);
+    }
+
+    private static IntVector byProduct(IntVector result, VectorMask<Integer> pending, IntVector product, int[] slots) {
+        IntVector slot = product.mul(LookupEvaluator.PRODUCT_HASH_MULTIPLIER)
+                .lanewise(VectorOperators.LSHR, 32 - LookupEvaluator.PRODUCT_TABLE_BITS);
+
+        // Slots are always valid indices, so plain gathers are used; masked gathers are much slower on JDK 17.
+        while (pending.anyTrue()) {
+            slot.intoArray(slots, 0);
+
+            IntVector keys = IntVector.fromArray(SPECIES, LookupEvaluator.PRODUCT_KEYS, 0, slots, 0);
+            VectorMask<Integer> found = keys.compare(VectorOperators.EQ, product).and(pending);
+
+            result = result.blend(IntVector.fromArray(SPECIES, LookupEvaluator.PRODUCT_VALUES, 0, slots, 0), found);
+            pending = pending.andNot(found);
+            slot = slot.add(1).and(LookupEvaluator.PRODUCT_TABLE_MASK);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,67 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchEvaluatorTest {
+    @Test
+    void givenRandomHands_whenEvaluate_thenReturnTheSameStrengthsAsSingleHandEvaluation() {
+        int count = 10_003;
+        int[] cards = randomHands(new Random(17), count);
+        int[] expectedValue = new int[count];
+        int[] actualValue = new int[count];
+
+        for (int i = 0; i < count; i++)
+            expectedValue[i] = LookupEvaluator.evaluate(
+                    LookupEvaluator.encode(cards[i]), LookupEvaluator.encode(cards[count + i]),
+                    LookupEvaluator.encode(cards[2 * count + i]), LookupEvaluator.encode(cards[3 * count + i]),
+                    LookupEvaluator.encode(cards[4 * count + i]));
+
+        BatchEvaluator.evaluate(cards, count, actualValue);
+
+        assertArrayEquals(expectedValue, actualValue);
+    }
+
+    @Test
+    void givenRandomHands_whenEvaluateScalar_thenReturnTheSameStrengthsAsEvaluate() {
+        int count = 4097;
+        int[] cards = randomHands(new Random(3), count);
+        int[] expectedValue = new int[count];
+        int[] actualValue = new int[count];
+
+        BatchEvaluator.evaluate(cards, count, expectedValue);
+        BatchEvaluator.evaluateScalar(cards, count, actualValue);
+
+        assertArrayEquals(expectedValue, actualValue);
+    }
+
+    @Test
+    void givenTooSmallOutput_whenEvaluate_thenThrowIllegalArgumentException() {
+        int[] cards = new int[50];
+
+        assertThrows(IllegalArgumentException.class, () -> BatchEvaluator.evaluate(cards, 10, new int[9]));
+    }
+
+    static int[] randomHands(Random random, int count) {
+        int[] cards = new int[5 * count];
+
+        for (int i = 0; i < count; i++) {
+            long hand = Hand.EMPTY;
+
+            for (int k = 0; k < 5; k++) {
+                int code;
+                do {
+                    code = random.nextInt(Card.NUMBER_OF_CARDS);
+                } while (Hand.contains(hand, code));
+
+                hand = Hand.with(hand, code);
+                cards[k * count + i] = code;
+            }
+        }
+
+        return cards;
+    }
+}
@@ -21,4 +21,13 @@ public class CardTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void givenCard_whenCode_thenRankAndSuitCanBeDecoded() {
+        for (Card card: Card.newDeck()) {
+            assertEquals(card.rank().ordinal(), Card.rankOf(card.code()));
+            assertEquals(card.suit().ordinal(), Card.suitOf(card.code()));
+            assertEquals(card, Card.of(card.code()));
+        }
+    }
+}
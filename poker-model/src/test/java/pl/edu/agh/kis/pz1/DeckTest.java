@@ -4,8 +4,10 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class DeckTest {
     private Deck deck;
@@ -37,4 +39,57 @@ public class DeckTest {
         assertEquals(expectedValue, actualValue);
         assertEquals(expectedDeckSize, actualDeckSize);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void givenShuffledDeck_whenDealAllCards_thenEveryCardIsDealtOnce() {
+        deck.shuffle();
+        Set<Integer> dealt = new HashSet<>();
+
+        for (int i = 0; i < Card.NUMBER_OF_CARDS; i++)
+            dealt.add(deck.dealCardCode());
+
+        assertEquals(Card.NUMBER_OF_CARDS, dealt.size());
+        assertEquals(0, deck.cardsLeft());
+        assertThrows(IndexOutOfBoundsException.class, () -> deck.dealCardCode());
+    }
+
+    @Test
+    public void givenPartiallyDealtDeck_whenNewDeck_thenAllCardsAreBackInOrder() {
+        deck.shuffle();
+        for (int i = 0; i < 20; i++)
+            deck.dealCard();
+
+        deck.newDeck();
+
+        assertEquals(Card.NUMBER_OF_CARDS, deck.cardsLeft());
+        assertArrayEquals(deck.deck().toArray(), Card.newDeck().toArray());
+    }
+
+    @Test
+    public void givenTwoDecksWithSameSeed_whenShuffleAndDeal_thenDealSameCards() {
+        Deck first = new Deck(RandomSource.seeded(2023));
+        Deck second = new Deck(RandomSource.seeded(2023));
+
+        for (int game = 0; game < 3; game++) {
+            first.newDeck();
+            second.newDeck();
+            first.shuffle();
+            second.shuffle();
+
+            for (int i = 0; i < Card.NUMBER_OF_CARDS; i++)
+                assertEquals(first.dealCardCode(), second.dealCardCode());
+        }
+    }
+
+    @Test
+    public void givenSeededRandomSource_whenNextInt_thenReturnEveryValueWithinBound() {
+        RandomSource random = RandomSource.seeded(7);
+        int[] counts = new int[Card.NUMBER_OF_CARDS];
+
+        for (int i = 0; i < 52_000; i++)
+            counts[random.nextInt(Card.NUMBER_OF_CARDS)]++;
+
+        for (int count : counts)
+            assertTrue(count > 800 && count < 1200, "Count: " + count);
+    }
+}
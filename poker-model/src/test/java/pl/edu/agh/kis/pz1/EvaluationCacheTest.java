@@ -0,0 +1,49 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationCacheTest {
+    @Test
+    void givenRandomHands_whenStrength_thenReturnSameStrengthAsEvaluators() {
+        EvaluationCache cache = new EvaluationCache(64);
+        Random random = new Random(2718);
+
+        for (int i = 0; i < 50_000; i++) {
+            int cards = random.nextBoolean() ? 5 : 7;
+            long hand = Hand.EMPTY;
+
+            while (Hand.size(hand) < cards)
+                hand = Hand.with(hand, random.nextInt(Card.NUMBER_OF_CARDS));
+
+            int expectedValue = cards == 5 ? LookupEvaluator.evaluate(hand) : SevenCardEvaluator.evaluate(hand);
+
+            assertEquals(expectedValue, cache.strength(hand));
+            assertEquals(expectedValue, cache.strength(hand));
+        }
+
+        assertTrue(cache.hits() >= 50_000);
+        assertTrue(cache.evictions() > 0);
+    }
+
+    @Test
+    void givenPlayerWithEvaluatedHand_whenDiscardAndReceiveCard_thenEvaluateNewHand() {
+        Player player = new Player(0);
+        player.receiveCard(Card.of(Card.Rank.ACE, Card.Suit.HEARTS));
+        player.receiveCard(Card.of(Card.Rank.ACE, Card.Suit.SPADES));
+        player.receiveCard(Card.of(Card.Rank.SEVEN, Card.Suit.CLUBS));
+        player.receiveCard(Card.of(Card.Rank.FIVE, Card.Suit.HEARTS));
+        player.receiveCard(Card.of(Card.Rank.DEUCE, Card.Suit.DIAMONDS));
+
+        assertEquals(HandEvaluator.HandValues.PAIR, player.getHandEvaluation());
+
+        player.discardCard(4);
+        player.receiveCard(Card.of(Card.Rank.ACE, Card.Suit.CLUBS));
+
+        assertEquals(HandEvaluator.HandValues.THREEOFAKIND, player.getHandEvaluation());
+        assertEquals(LookupEvaluator.evaluate(player.getHandMask()), player.getHandStrength());
+    }
+}
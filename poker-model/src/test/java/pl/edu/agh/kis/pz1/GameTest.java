@@ -0,0 +1,122 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+import pl.edu.agh.kis.pz1.exceptions.GameEndedByFoldingException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTest {
+    private static final int ANTE = 20;
+
+    @Test
+    void givenRandomDeals_whenSplitStakeBetweenWinners_thenReturnSamePrizesAsRankingOfHands() throws Exception {
+        Random random = new Random(1618);
+        HandEvaluator handEvaluator = new HandEvaluator();
+
+        for (int deal = 0; deal < 5_000; deal++) {
+            int numberOfPlayers = 2 + random.nextInt(3);
+            Game game = newGame(numberOfPlayers, random.nextLong());
+
+            // Reference result: players sorted by hands, winners are the top ones with equal hands.
+            ArrayList<Integer> ranking = new ArrayList<>(game.getPlayers());
+            ranking.sort((player1, player2) -> -handEvaluator.compareHands(game.getPlayerHand(player1), game.getPlayerHand(player2)));
+            int winners = 1;
+
+            while (winners < ranking.size() && handEvaluator.compareHands(game.getPlayerHand(ranking.get(0)),
+                    game.getPlayerHand(ranking.get(winners))) == 0)
+                winners++;
+
+            HashMap<Integer, Integer> expectedValue = new HashMap<>();
+
+            for (int i = 0; i < ranking.size(); i++)
+                expectedValue.put(ranking.get(i), i < winners ? ANTE * numberOfPlayers / winners : 0);
+
+            assertEquals(expectedValue, game.splitStakeBetweenWinners());
+        }
+    }
+
+    @Test
+    void givenFoldedPlayer_whenSplitStakeBetweenWinners_thenFoldedPlayerWinsNothing() throws Exception {
+        Random random = new Random(42);
+
+        for (int deal = 0; deal < 1_000; deal++) {
+            Game game = newGame(3, random.nextLong());
+            HandEvaluator handEvaluator = new HandEvaluator();
+            int best = 0;
+
+            for (int playerId = 1; playerId < 3; playerId++)
+                if (handEvaluator.compareHands(game.getPlayerHand(playerId), game.getPlayerHand(best)) > 0)
+                    best = playerId;
+
+            game.fold(best);
+            HashMap<Integer, Integer> prizes = game.splitStakeBetweenWinners();
+
+            assertEquals(0, prizes.get(best));
+            assertTrue(prizes.values().stream().mapToInt(Integer::intValue).sum() > ANTE * 3 - 2);
+        }
+    }
+
+    @Test
+    void givenPlayerRemovedDuringAndBetweenGames_whenGameEnds_thenPlayerLeavesGameAndBiddingOrder() throws Exception {
+        Game game = newGame(3, 7);
+        game.removePlayer(1);
+
+        assertTrue(game.hasFolded(1));
+        assertTrue(game.getBiddingOrder().contains(1));
+
+        game.splitStakeBetweenWinners();
+        assertEquals(Set.of(0, 2), game.getPlayers());
+        assertFalse(game.getBiddingOrder().contains(1));
+
+        game.removePlayer(2);
+        game.newPlayer(3);
+        assertEquals(List.of(0, 3), game.getBiddingOrder().stream().sorted().toList());
+    }
+
+    @Test
+    void givenRaiseAndCalls_whenBid_thenStakeIsHighestBidAndBiddingEnds() throws Exception {
+        Game game = newGame(3, 11);
+
+        // Ante counts as the first bid of every player.
+        game.bid(0, 20);
+        assertEquals(ANTE + 20, game.getCurrentNegotiationStake());
+        assertEquals(20, game.howMuchToBid(1));
+
+        game.bid(1, 20);
+        game.bid(2, 20);
+        assertEquals(ANTE + 20, game.getCurrentNegotiationStake());
+        assertTrue(game.biddingOver());
+    }
+
+    @Test
+    void givenHandEndedByFoldingAfterRaise_whenNewGame_thenNobodyOwesBidsOfPreviousHand() throws Exception {
+        Game game = newGame(3, 5);
+        game.bid(0, 20);
+        game.fold(1);
+        assertThrows(GameEndedByFoldingException.class, () -> game.fold(2));
+        game.splitStakeBetweenWinners();
+
+        game.newGame();
+
+        assertEquals(0, game.getCurrentNegotiationStake());
+
+        for (int playerId = 0; playerId < 3; playerId++)
+            assertEquals(-ANTE, game.howMuchToBid(playerId));
+    }
+
+    private static Game newGame(int numberOfPlayers, long seed) throws Exception {
+        Game game = new Game(1, numberOfPlayers, ANTE, RandomSource.seeded(seed));
+
+        for (int playerId = 0; playerId < numberOfPlayers; playerId++)
+            game.newPlayer(playerId);
+
+        game.newGame();
+        return game;
+    }
+}
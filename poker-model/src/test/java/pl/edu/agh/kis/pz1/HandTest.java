@@ -0,0 +1,52 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandTest {
+    @Test
+    void givenRandomCards_whenToCards_thenReturnCardsSortedByRankComparator() {
+        Random random = new Random(7);
+
+        for (int i = 0; i < 1000; i++) {
+            ArrayList<Card> cards = Card.newDeck();
+            Collections.shuffle(cards, random);
+            ArrayList<Card> expectedValue = new ArrayList<>(cards.subList(0, 5));
+            expectedValue.sort(new CardRankComparator());
+
+            ArrayList<Card> actualValue = Hand.toCards(Hand.of(cards.subList(0, 5)));
+
+            assertEquals(expectedValue, actualValue);
+        }
+    }
+
+    @Test
+    void givenHand_whenCardAt_thenReturnCardsInTheSameOrderAsToCards() {
+        ArrayList<Card> cards = new ArrayList<>(Card.newDeck().subList(10, 17));
+        long hand = Hand.of(cards);
+        ArrayList<Card> sorted = Hand.toCards(hand);
+
+        for (int i = 0; i < sorted.size(); i++)
+            assertEquals(sorted.get(i).code(), Hand.cardAt(hand, i));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> Hand.cardAt(hand, 7));
+    }
+
+    @Test
+    void givenHand_whenWithoutCard_thenCardIsRemovedAndOthersStay() {
+        Card removed = Card.of(Card.Rank.QUEEN, Card.Suit.HEARTS);
+        Card kept = Card.of(Card.Rank.DEUCE, Card.Suit.CLUBS);
+        long hand = Hand.with(Hand.with(Hand.EMPTY, removed.code()), kept.code());
+
+        long actualValue = Hand.without(hand, removed.code());
+
+        assertFalse(Hand.contains(actualValue, removed.code()));
+        assertTrue(Hand.contains(actualValue, kept.code()));
+        assertEquals(1, Hand.size(actualValue));
+    }
+}
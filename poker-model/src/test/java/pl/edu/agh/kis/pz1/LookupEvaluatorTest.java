@@ -0,0 +1,65 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupEvaluatorTest {
+    @Test
+    void givenAllFiveCardHands_whenEvaluate_thenReturnKnownNumberOfHandsInEachCategory() {
+        int[] codes = new int[52];
+        ArrayList<Card> deck = Card.newDeck();
+        for (int i = 0; i < 52; i++)
+            codes[i] = LookupEvaluator.encode(deck.get(i));
+
+        Map<HandEvaluator.HandValues, Integer> hands = new EnumMap<>(HandEvaluator.HandValues.class);
+        Set<Integer> strengths = new HashSet<>();
+
+        for (int a = 0; a < 52; a++)
+            for (int b = a + 1; b < 52; b++)
+                for (int c = b + 1; c < 52; c++)
+                    for (int d = c + 1; d < 52; d++)
+                        for (int e = d + 1; e < 52; e++) {
+                            int strength = LookupEvaluator.evaluate(codes[a], codes[b], codes[c], codes[d], codes[e]);
+                            strengths.add(strength);
+                            hands.merge(LookupEvaluator.category(strength), 1, Integer::sum);
+                        }
+
+        assertEquals(7462, strengths.size());
+        assertEquals(40, hands.get(HandEvaluator.HandValues.STRAIGHTFLUSH));
+        assertEquals(624, hands.get(HandEvaluator.HandValues.FOUROFAKIND));
+        assertEquals(3744, hands.get(HandEvaluator.HandValues.FULLHOUSE));
+        assertEquals(5108, hands.get(HandEvaluator.HandValues.FLUSH));
+        assertEquals(10200, hands.get(HandEvaluator.HandValues.STRAIGHT));
+        assertEquals(54912, hands.get(HandEvaluator.HandValues.THREEOFAKIND));
+        assertEquals(123552, hands.get(HandEvaluator.HandValues.TWOPAIR));
+        assertEquals(1098240, hands.get(HandEvaluator.HandValues.PAIR));
+        assertEquals(1302540, hands.get(HandEvaluator.HandValues.HIGHCARD));
+    }
+
+    @Test
+    void givenWheelAndSixHighStraight_whenEvaluate_thenSixHighStraightIsStronger() {
+        int wheel = LookupEvaluator.evaluate(
+                LookupEvaluator.encode(12, 0), LookupEvaluator.encode(0, 1), LookupEvaluator.encode(1, 2),
+                LookupEvaluator.encode(2, 3), LookupEvaluator.encode(3, 0));
+        int sixHigh = LookupEvaluator.evaluate(
+                LookupEvaluator.encode(4, 0), LookupEvaluator.encode(0, 1), LookupEvaluator.encode(1, 2),
+                LookupEvaluator.encode(2, 3), LookupEvaluator.encode(3, 0));
+
+        assertEquals(HandEvaluator.HandValues.STRAIGHT, LookupEvaluator.category(wheel));
+        assertTrue(sixHigh > wheel);
+    }
+
+    @Test
+    void givenHandWithFourCards_whenEvaluate_thenThrowIllegalArgumentException() {
+        ArrayList<Card> hand = new ArrayList<>(Card.newDeck().subList(0, 4));
+
+        assertThrows(IllegalArgumentException.class, () -> LookupEvaluator.evaluate(hand));
+    }
+}
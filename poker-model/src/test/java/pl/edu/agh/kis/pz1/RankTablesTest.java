@@ -0,0 +1,46 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankTablesTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void givenWrittenFile_whenMapAndRead_thenReturnTablesOfEvaluators() throws IOException {
+        Path path = directory.resolve("tables.bin");
+        RankTables.write(path);
+
+        IntBuffer file = RankTables.map(path);
+        int[] flushes = new int[SevenCardEvaluator.FLUSHES.length];
+        int[] rankCounts = new int[SevenCardEvaluator.RANK_COUNTS.length];
+        int[] productValues = new int[LookupEvaluator.PRODUCT_VALUES.length];
+
+        assertNotNull(file);
+        assertTrue(RankTables.read(file, RankTables.Section.SEVEN_CARD_FLUSHES, flushes, rankCounts));
+        assertTrue(RankTables.read(file, RankTables.Section.FIVE_CARD_PRODUCT_VALUES, productValues));
+        assertArrayEquals(SevenCardEvaluator.FLUSHES, flushes);
+        assertArrayEquals(SevenCardEvaluator.RANK_COUNTS, rankCounts);
+        assertArrayEquals(LookupEvaluator.PRODUCT_VALUES, productValues);
+    }
+
+    @Test
+    void givenCorruptedOrMissingFile_whenMap_thenReturnNull() throws IOException {
+        Path path = directory.resolve("tables.bin");
+        RankTables.write(path);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(path, bytes);
+
+        assertNull(RankTables.map(path));
+        assertNull(RankTables.map(directory.resolve("missing.bin")));
+    }
+}
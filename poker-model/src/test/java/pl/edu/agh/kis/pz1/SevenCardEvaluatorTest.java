@@ -0,0 +1,66 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SevenCardEvaluatorTest {
+    @Test
+    void givenRandomSevenCardHands_whenEvaluate_thenReturnBestOfAllFiveCardSubsets() {
+        Random random = new Random(31415);
+
+        for (int i = 0; i < 200_000; i++) {
+            long hand = randomHand(random);
+
+            assertEquals(bestSubset(hand), SevenCardEvaluator.evaluate(hand), "Hand: " + Hand.toCards(hand));
+        }
+    }
+
+    @Test
+    void givenSevenCardsWithFlushAndStraightOfDifferentSuits_whenEvaluate_thenReturnFlush() {
+        long hand = Hand.EMPTY;
+        hand = Hand.with(hand, Card.of(Card.Rank.DEUCE, Card.Suit.HEARTS).code());
+        hand = Hand.with(hand, Card.of(Card.Rank.FOUR, Card.Suit.HEARTS).code());
+        hand = Hand.with(hand, Card.of(Card.Rank.FIVE, Card.Suit.HEARTS).code());
+        hand = Hand.with(hand, Card.of(Card.Rank.SIX, Card.Suit.HEARTS).code());
+        hand = Hand.with(hand, Card.of(Card.Rank.KING, Card.Suit.HEARTS).code());
+        hand = Hand.with(hand, Card.of(Card.Rank.THREE, Card.Suit.CLUBS).code());
+        hand = Hand.with(hand, Card.of(Card.Rank.SEVEN, Card.Suit.SPADES).code());
+
+        int actualValue = SevenCardEvaluator.evaluate(hand);
+
+        assertEquals(HandEvaluator.HandValues.FLUSH, LookupEvaluator.category(actualValue));
+        assertEquals(bestSubset(hand), actualValue);
+    }
+
+    @Test
+    void givenSixCards_whenEvaluate_thenThrowIllegalArgumentException() {
+        long hand = Hand.of(Card.newDeck().subList(0, 6));
+
+        assertThrows(IllegalArgumentException.class, () -> SevenCardEvaluator.evaluate(hand));
+    }
+
+    private static long randomHand(Random random) {
+        long hand = Hand.EMPTY;
+
+        while (Hand.size(hand) < 7)
+            hand = Hand.with(hand, random.nextInt(Card.NUMBER_OF_CARDS));
+
+        return hand;
+    }
+
+    private static int bestSubset(long hand) {
+        // Exhaustive enumeration of all 21 five-card subsets, dropping two cards at a time.
+        int best = 0;
+
+        for (long first = hand; first != 0; first &= first - 1)
+            for (long second = first & (first - 1); second != 0; second &= second - 1) {
+                long subset = hand & ~Long.lowestOneBit(first) & ~Long.lowestOneBit(second);
+                best = Math.max(best, LookupEvaluator.evaluate(subset));
+            }
+
+        return best;
+    }
+}
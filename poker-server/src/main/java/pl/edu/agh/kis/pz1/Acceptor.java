@@ -0,0 +1,68 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Class Acceptor accepts connections of all listening sockets of the {@link PokerServer}, e.g. the TCP one
+ * and the Unix domain one, with one selector on the acceptor thread. Listener that has connections waiting
+ * is drained before the next one, accepted connections are returned one by one in blocking mode.
+ *
+ * @author Kacper Cienkosz
+ */
+class Acceptor implements AutoCloseable {
+    private final Selector selector;
+
+    /**
+     * Creates acceptor and switches the listeners to non-blocking mode.
+     *
+     * @param listeners Bound listening sockets.
+     * @throws IOException If the selector cannot be opened or a listener cannot be registered.
+     */
+    Acceptor(List<ServerSocketChannel> listeners) throws IOException {
+        this.selector = Selector.open();
+
+        for (ServerSocketChannel listener: listeners) {
+            listener.configureBlocking(false);
+            listener.register(selector, SelectionKey.OP_ACCEPT);
+        }
+    }
+
+    public boolean isOpen() {
+        return selector.isOpen();
+    }
+
+    /**
+     * Waits for the next connection.
+     *
+     * @return Accepted connection.
+     * @throws IOException If selecting or accepting fails.
+     */
+    public SocketChannel accept() throws IOException {
+        while (true) {
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+
+            while (it.hasNext()) {
+                SocketChannel client = ((ServerSocketChannel) it.next().channel()).accept();
+
+                if (client != null)
+                    return client;
+
+                // Backlog of the listener is empty.
+                it.remove();
+            }
+
+            selector.select();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        selector.close();
+    }
+}
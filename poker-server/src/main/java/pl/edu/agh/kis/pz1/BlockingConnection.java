@@ -0,0 +1,123 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Class BlockingConnection is a client connection of the thread-per-connection mode of the {@link PokerServer}.
+ * Socket is in blocking mode. Connection runs as the reader thread of the client: it waits for frames and posts
+ * every received message to the {@link TableThread} of the player. Messages are sent by the table thread,
+ * which blocks until the socket takes the whole frame.
+ *
+ * @author Kacper Cienkosz
+ */
+class BlockingConnection implements Connection, Runnable {
+    private final SocketChannel channel;
+    private final int playerId;
+    private final TableThread table;
+    private final FrameDecoder decoder = new FrameDecoder();
+    /**
+     * Buffer for encoding outgoing messages, used only by the table thread.
+     */
+    private ByteBuffer outbound = ByteBuffer.allocate(4096);
+    /**
+     * Whether messages are sent in the binary format, set by the reader thread, see {@link BinaryMessageCodec#NEGOTIATION}.
+     */
+    private volatile boolean binary = false;
+
+    /**
+     * Creates connection of the player seated at the table.
+     *
+     * @param channel Accepted connection in blocking mode.
+     * @param playerId ID of the player.
+     * @param table Table the player is seated at.
+     */
+    BlockingConnection(SocketChannel channel, int playerId, TableThread table) {
+        this.channel = channel;
+        this.playerId = playerId;
+        this.table = table;
+        ConnectionMetrics.connectionOpened();
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    /**
+     * Reads messages until the connection is closed. Every message is decoded into a new {@link Message},
+     * because it is handled later by the table thread. When the stream ends, the table thread decides whether
+     * the client has gone away without leaving the table and reaps the connection, see {@link TableThread#disconnect}.
+     */
+    @Override
+    public void run() {
+        Message received = new Message();
+        String reason = "End of stream.";
+
+        try {
+            while (decoder.readFrom(channel) >= 0) {
+                while (decoder.nextMessage(received)) {
+                    if (Connection.isNegotiation(received)) {
+                        binary = true;
+                        continue;
+                    }
+
+                    if (PokerServer.TRACE)
+                        System.out.println("Received: " + received);
+
+                    table.receive(this, received);
+                    received = new Message();
+                }
+            }
+        }
+        catch (IOException e) {
+            reason = e.getMessage();
+        }
+
+        // Player that has left or has been removed is not reaped, the table closes the socket.
+        if (!channel.isOpen())
+            return;
+
+        if (!table.disconnect(this, reason)) {
+            try {
+                close();
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @Override
+    public void send(int gameId, int playerId, MessageParser.Action action, CharSequence parameters) throws IOException {
+        int frameLength = FrameEncoder.maxFrameLength(parameters);
+
+        if (outbound.capacity() < frameLength)
+            outbound = ByteBuffer.allocate(frameLength);
+
+        outbound.clear();
+        FrameEncoder.encode(gameId, playerId, action, parameters, binary, outbound);
+        outbound.flip();
+
+        while (outbound.hasRemaining())
+            channel.write(outbound);
+    }
+
+    /**
+     * Closes the connection. Closing already closed connection does nothing.
+     *
+     * @throws IOException If closing the socket fails.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen())
+            return;
+
+        ConnectionMetrics.connectionClosed();
+        channel.close();
+    }
+}
@@ -0,0 +1,41 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.IOException;
+
+/**
+ * Interface Connection is the side of a client connection that tables use. It is implemented by
+ * {@link SelectorConnection} of the event loop mode and by {@link BlockingConnection} of the thread-per-connection mode.
+ *
+ * @author Kacper Cienkosz
+ */
+interface Connection {
+    /**
+     * Sends message to the client in the format the client has chosen.
+     *
+     * @param gameId ID of the game that message is related to.
+     * @param playerId ID of the player that message is directed to.
+     * @param action Type of action.
+     * @param parameters Additional parameters sent with message.
+     * @throws IOException If writing to the socket fails.
+     */
+    void send(int gameId, int playerId, MessageParser.Action action, CharSequence parameters) throws IOException;
+
+    /**
+     * Closes the connection.
+     *
+     * @throws IOException If closing the socket fails.
+     */
+    void close() throws IOException;
+
+    /**
+     * Checks whether the received message asks for the binary format instead of taking part in the game,
+     * see {@link BinaryMessageCodec#NEGOTIATION}.
+     *
+     * @param received Message received from the client.
+     * @return <code>true</code> if the message switches the connection to the binary format.
+     */
+    static boolean isNegotiation(Message received) {
+        return received.getActionType() == MessageParser.Action.ACCEPT
+                && BinaryMessageCodec.NEGOTIATION.equals(received.getActionParameters());
+    }
+}
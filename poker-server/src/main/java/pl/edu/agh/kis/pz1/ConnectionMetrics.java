@@ -0,0 +1,53 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class ConnectionMetrics counts client connections of the {@link PokerServer} in all threads.
+ * Connection is live from accepting until it is closed. Connections closed because the client has gone away
+ * without leaving the table (end of stream, error of the socket or invalid data) are counted as reaped.
+ *
+ * @author Kacper Cienkosz
+ */
+final class ConnectionMetrics {
+    private static final AtomicLong opened = new AtomicLong();
+    private static final AtomicLong closed = new AtomicLong();
+    private static final AtomicLong reaped = new AtomicLong();
+
+    private ConnectionMetrics() {
+    }
+
+    static void connectionOpened() {
+        opened.incrementAndGet();
+    }
+
+    static void connectionClosed() {
+        closed.incrementAndGet();
+    }
+
+    static void connectionReaped() {
+        reaped.incrementAndGet();
+    }
+
+    /**
+     * Returns number of connections that are open now.
+     *
+     * @return Number of live connections.
+     */
+    static long live() {
+        return opened.get() - closed.get();
+    }
+
+    /**
+     * Returns number of connections closed because the client had gone away.
+     *
+     * @return Number of reaped connections.
+     */
+    static long reaped() {
+        return reaped.get();
+    }
+
+    static String summary() {
+        return "Connections live: " + live() + ", reaped: " + reaped() + ", accepted: " + opened.get() + ".";
+    }
+}
@@ -0,0 +1,341 @@
+package pl.edu.agh.kis.pz1;
+
+import pl.edu.agh.kis.pz1.exceptions.*;
+
+import java.io.IOException;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Class EventLoop is one worker of the {@link PokerServer}. It has its own selector, timer and tables,
+ * and serves connections handed to it by the acceptor thread of the server. Player is seated at a table of the worker
+ * that serves their connection, so every table and its game are used by one thread only.
+ * <p>
+ * Loop serves in-process clients connected through {@link LoopbackChannel}s as well. Their channels are not
+ * in the selector, the listener of the channel queues the connection as ready and wakes the selector up instead.
+ * Loop can also be run step by step with {@link #poll(boolean)} by the thread running the clients,
+ * which makes the order of all events of the server and the clients deterministic, see {@link LoopbackServer}.
+ *
+ * @author Kacper Cienkosz
+ */
+class EventLoop implements Runnable {
+    private final int numberOfPlayers;
+    /**
+     * Selector takes care for handling non-blocking IO while worker communicates with clients.
+     */
+    private final Selector selector;
+    /**
+     * Timer running delayed tasks of the tables on this loop.
+     */
+    private final EventLoopTimer timer = new EventLoopTimer();
+    /**
+     * Tables served by this loop, keys are IDs of the games carried out on the tables.
+     */
+    private final HashMap<Integer, Table> tables = new HashMap<>();
+    /**
+     * Connections accepted by the acceptor thread and not registered in the selector yet.
+     */
+    private final Queue<ByteChannel> accepted = new ConcurrentLinkedQueue<>();
+    /**
+     * Loopback connections that have received data or have been closed by the client.
+     */
+    private final Queue<SelectorConnection> ready = new ConcurrentLinkedQueue<>();
+    /**
+     * Message reused for every message received by this loop.
+     */
+    private final Message receivedMessage = new Message();
+
+    /**
+     * Creates event loop.
+     *
+     * @param numberOfPlayers Number of players at every table.
+     * @throws IOException If the selector cannot be opened.
+     */
+    EventLoop(int numberOfPlayers) throws IOException {
+        this.numberOfPlayers = numberOfPlayers;
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Hands accepted connection to this loop. Can be called from any thread.
+     *
+     * @param channel Accepted socket or server end of a {@link LoopbackChannel}.
+     */
+    public void accept(ByteChannel channel) {
+        accepted.add(channel);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted())
+                poll(true);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+        finally {
+            close();
+        }
+    }
+
+    /**
+     * Closes the selector of the loop.
+     */
+    void close() {
+        try {
+            selector.close();
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Method runs one iteration of the event loop: registers handed connections, routes received messages
+     * to the tables and runs tasks of the timer.
+     *
+     * @param block Whether to wait for events until the next task of the timer. Loop run step by step
+     *              by another thread does not block and does not select if no socket is registered.
+     * @throws IOException Something goes wrong while selecting.
+     */
+    void poll(boolean block) throws IOException {
+        long timeout = timer.millisToNext();
+
+        if (block && timeout != 0 && accepted.isEmpty() && ready.isEmpty())
+            selector.select(Math.max(timeout, 0));
+        else if (block || !selector.keys().isEmpty())
+            selector.selectNow();
+
+        for (ByteChannel channel = accepted.poll(); channel != null; channel = accepted.poll())
+            handleAccept(channel);
+
+        Set<SelectionKey> selectedKeys = selector.selectedKeys();
+        Iterator<SelectionKey> it = selectedKeys.iterator();
+
+        while (it.hasNext()) {
+            SelectionKey key = it.next();
+            it.remove();
+            handleWritable(key);
+
+            if (key.isValid() && key.isReadable())
+                handleInput((SelectorConnection) key.attachment());
+        }
+
+        // Loopback channel announces data only after it has been drained.
+        for (SelectorConnection connection = ready.poll(); connection != null; connection = ready.poll())
+            while (connection.getChannel().isOpen() && handleInput(connection) > 0);
+
+        timer.runExpired();
+    }
+
+    /**
+     * Method handleAccept registers connection and seats new player at a table of this loop with a free seat.
+     * New table is opened if all tables are full or in the middle of a game.
+     * If player was seated the table sends message with action ACCEPT. Loop sends message with action DENY otherwise.
+     * For further information about actions see {@link pl.edu.agh.kis.pz1.MessageParser}
+     *
+     * @param client Accepted socket or loopback channel.
+     */
+    private void handleAccept(ByteChannel client) {
+        try {
+            SelectionKey key = null;
+
+            if (client instanceof SocketChannel socket) {
+                socket.configureBlocking(false);
+                // OP_WRITE is added by the connection only while it has messages waiting to be sent.
+                key = socket.register(selector, SelectionKey.OP_READ);
+            }
+
+            int clientId = PokerServer.nextClientId();
+            Table table = openTable();
+            SelectorConnection connection = new SelectorConnection(client, key, clientId, table.getId());
+
+            if (client instanceof LoopbackChannel loopback) {
+                loopback.setListener(() -> {
+                    ready.add(connection);
+                    selector.wakeup();
+                });
+                // Data sent before the listener was set.
+                ready.add(connection);
+            }
+
+            try {
+                table.seat(clientId, connection);
+            }
+            catch (IncorrectNumbersOfPlayersException e) {
+                connection.send(table.getId(), clientId, MessageParser.Action.DENY, e.getMessage());
+                connection.close();
+            }
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Method finds a table that new player can sit at or opens a new one.
+     *
+     * @return Table with a free seat.
+     */
+    private Table openTable() {
+        for (Table table: tables.values())
+            if (table.canSeat())
+                return table;
+
+        int gameId = PokerServer.nextGameId();
+        Table table = new Table(gameId, numberOfPlayers, PokerServer.ANTE, PokerServer.randomSource(gameId), timer,
+                PokerServer.DEAL_DELAY_MILLIS, PokerServer.DECISION_MILLIS, this::retire);
+        tables.put(gameId, table);
+        System.out.println(Thread.currentThread().getName() + ": table " + gameId + " opened. Tables: " + tables.size());
+
+        return table;
+    }
+
+    /**
+     * Method removes table left by all players.
+     *
+     * @param table Empty table.
+     */
+    private void retire(Table table) {
+        tables.remove(table.getId());
+        System.out.println(Thread.currentThread().getName() + ": table " + table.getId() + " retired. Tables: " + tables.size());
+    }
+
+    /**
+     * Method passes the message to the table given by its game ID. Messages about games the connection
+     * does not play at are denied.
+     *
+     * @param connection Connection the message has been received from.
+     * @param received Message received from client.
+     */
+    private void route(Connection connection, Message received) {
+        Table table = tables.get(received.getGameId());
+
+        if (table == null || !table.isSeated(received.getPlayerId(), connection)) {
+            try {
+                connection.send(received.getGameId(), received.getPlayerId(), MessageParser.Action.DENY,
+                        "Player " + received.getPlayerId() + " does not play game " + received.getGameId() + ".");
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+
+            return;
+        }
+
+        table.handle(received);
+    }
+
+    /**
+     * Method handleInput reads bytes received from the connection and routes all messages they complete.
+     * One read can complete any number of frames. Connection closed by the client or broken is reaped,
+     * see {@link #reap(SelectorConnection, String)}.
+     *
+     * @param connection Connection reported as readable.
+     * @return Number of bytes read, <code>-1</code> if the connection has been reaped.
+     * For further information please see {@link pl.edu.agh.kis.pz1.MessageCodec}.
+     */
+    private int handleInput(SelectorConnection connection) {
+        int read;
+
+        try {
+            read = connection.read();
+        }
+        catch (IOException e) {
+            reap(connection, e.getMessage());
+            return -1;
+        }
+
+        if (read < 0) {
+            reap(connection, "End of stream.");
+            return -1;
+        }
+
+        for (Message received = nextMessage(connection); received != null; received = nextMessage(connection))
+            route(connection, received);
+
+        return read;
+    }
+
+    /**
+     * Method nextMessage decodes next complete message already received from the connection.
+     *
+     * @param connection Connection the bytes have been received from.
+     * @return Message decoded into {@link #receivedMessage}, <code>null</code> if there are no more complete messages.
+     */
+    private Message nextMessage(SelectorConnection connection) {
+        if (!connection.getChannel().isOpen())
+            return null;
+
+        try {
+            if (!connection.nextMessage(receivedMessage))
+                return null;
+        }
+        catch (InvalidFrameException e) {
+            reap(connection, e.getMessage());
+            return null;
+        }
+
+        if (PokerServer.TRACE)
+            System.out.println("Received: " + receivedMessage);
+
+        return receivedMessage;
+    }
+
+    /**
+     * Method handleWritable sends messages waiting in the outbound queue of the connection
+     * when the selector reports it as writable.
+     *
+     * @param key SelectionKey given by Selector.
+     */
+    private void handleWritable(SelectionKey key) {
+        if (!key.isValid() || !key.isWritable())
+            return;
+
+        SelectorConnection connection = (SelectorConnection) key.attachment();
+
+        try {
+            connection.flush();
+        }
+        catch (IOException e) {
+            reap(connection, e.getMessage());
+        }
+    }
+
+    /**
+     * Method reap releases connection of the client that has gone away without leaving the table.
+     * Key of the connection is cancelled and the socket is closed, player is removed from the table
+     * and folds if the game is in progress.
+     *
+     * @param connection Closed or broken connection.
+     * @param reason Cause of closing the connection.
+     */
+    private void reap(SelectorConnection connection, String reason) {
+        if (!connection.getChannel().isOpen())
+            return;
+
+        ConnectionMetrics.connectionReaped();
+        Table table = tables.get(connection.getGameId());
+
+        if (table != null && table.isSeated(connection.getPlayerId(), connection)) {
+            table.disconnect(connection.getPlayerId());
+        }
+        else {
+            try {
+                connection.close();
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        System.out.println("Connection of player " + connection.getPlayerId() + " reaped: " + reason + " "
+                + ConnectionMetrics.summary());
+    }
+}
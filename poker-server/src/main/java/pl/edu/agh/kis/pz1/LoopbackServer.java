@@ -0,0 +1,95 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.IOException;
+
+/**
+ * Class LoopbackServer runs the event loops of the {@link PokerServer} in the calling process and connects
+ * clients through {@link LoopbackChannel}s, so benchmarks and tests play full games without sockets.
+ * Consecutive clients are handed to the same loop until they fill a table, as by the server.
+ * <p>
+ * Server with worker threads serves clients concurrently. Server without them has one loop run step by step
+ * with {@link #poll()} by the thread that runs the clients: if the clients are run by the same thread,
+ * e.g. with <code>ClientLoop.poll(false)</code>, and tables deal seeded decks, every run plays the same games.
+ *
+ * @author Kacper Cienkosz
+ */
+public class LoopbackServer implements AutoCloseable {
+    private final int numberOfPlayers;
+    private final EventLoop[] loops;
+    private final Thread[] threads;
+    private long connected = 0;
+
+    /**
+     * Creates server and starts its worker threads.
+     *
+     * @param numberOfPlayers Number of players at every table, from 2 to 4.
+     * @param workers Number of worker threads, <code>0</code> for one loop run with {@link #poll()}.
+     * @throws IOException If the selector of a loop cannot be opened.
+     */
+    public LoopbackServer(int numberOfPlayers, int workers) throws IOException {
+        if (numberOfPlayers < 2 || numberOfPlayers > 4 || workers < 0)
+            throw new IllegalArgumentException("Table needs between 2 and 4 players and number of workers cannot be negative.");
+
+        this.numberOfPlayers = numberOfPlayers;
+        this.loops = new EventLoop[Math.max(workers, 1)];
+        this.threads = new Thread[workers];
+
+        for (int i = 0; i < loops.length; i++)
+            loops[i] = new EventLoop(numberOfPlayers);
+
+        for (int i = 0; i < workers; i++) {
+            threads[i] = new Thread(loops[i], "poker-loopback-" + i);
+            threads[i].start();
+        }
+    }
+
+    /**
+     * Connects new client. Server seats the player and sends them ACCEPT as soon as the loop handles the connection.
+     * Must be called by one thread at a time.
+     *
+     * @return Client end of the connection.
+     */
+    public LoopbackChannel connect() {
+        LoopbackChannel[] pair = LoopbackChannel.openPair();
+
+        loops[(int) (connected / numberOfPlayers % loops.length)].accept(pair[0]);
+        connected++;
+
+        return pair[1];
+    }
+
+    /**
+     * Runs one iteration of the loop of the server without worker threads. Never blocks.
+     *
+     * @throws IOException Something goes wrong in the loop.
+     */
+    public void poll() throws IOException {
+        if (threads.length > 0)
+            throw new IllegalStateException("Loops of the server are run by its worker threads.");
+
+        loops[0].poll(false);
+    }
+
+    /**
+     * Stops the worker threads and waits for them, or closes the loop run with {@link #poll()}.
+     * If the calling thread is interrupted while waiting, it stops waiting and keeps the interrupt status.
+     */
+    @Override
+    public void close() {
+        if (threads.length == 0) {
+            loops[0].close();
+            return;
+        }
+
+        for (Thread thread: threads)
+            thread.interrupt();
+
+        try {
+            for (Thread thread: threads)
+                thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
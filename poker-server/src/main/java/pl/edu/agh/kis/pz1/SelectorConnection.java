@@ -0,0 +1,179 @@
+package pl.edu.agh.kis.pz1;
+
+import pl.edu.agh.kis.pz1.exceptions.InvalidFrameException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.SelectionKey;
+
+/**
+ * Class SelectorConnection keeps state of one client connection registered in the selector of an {@link EventLoop}.
+ * Received bytes are accumulated in the {@link FrameDecoder} of the connection until they form complete frames.
+ * Outgoing messages are encoded straight into the outbound buffer of the connection and written at once
+ * if the socket accepts them, otherwise they wait in the buffer and are written when the selector reports the socket
+ * as writable. Interest in <code>OP_WRITE</code> is set only while the buffer is not empty.
+ * Messages are sent in the text format until the client asks for the binary one, see {@link BinaryMessageCodec}.
+ * <p>
+ * Connection of an in-process client uses a {@link LoopbackChannel} instead of a socket. It has no key:
+ * the loop is told about received data by the listener of the channel, and writes never wait.
+ *
+ * @author Kacper Cienkosz
+ */
+class SelectorConnection implements Connection {
+    private final ByteChannel channel;
+    /**
+     * Key of the socket in the selector, <code>null</code> for loopback connections.
+     */
+    private final SelectionKey key;
+    private static final int INITIAL_OUTBOUND_CAPACITY = 4096;
+
+    /**
+     * Encoded messages waiting to be sent, in write mode.
+     */
+    private ByteBuffer outbound = ByteBuffer.allocate(INITIAL_OUTBOUND_CAPACITY);
+    private final FrameDecoder decoder = new FrameDecoder();
+    /**
+     * Whether messages are sent in the binary format, see {@link BinaryMessageCodec#NEGOTIATION}.
+     */
+    private boolean binary = false;
+
+    /**
+     * ID of the player using the connection and of the game they are seated at.
+     */
+    private final int playerId;
+    private final int gameId;
+
+    SelectorConnection(ByteChannel channel, SelectionKey key, int playerId, int gameId) {
+        this.channel = channel;
+        this.key = key;
+        this.playerId = playerId;
+        this.gameId = gameId;
+
+        if (key != null)
+            key.attach(this);
+
+        ConnectionMetrics.connectionOpened();
+    }
+
+    public ByteChannel getChannel() {
+        return channel;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Reads bytes available in the socket.
+     *
+     * @return Number of bytes read, <code>-1</code> if the client has closed the connection.
+     * @throws IOException If reading from the socket fails.
+     */
+    public int read() throws IOException {
+        return decoder.readFrom(channel);
+    }
+
+    /**
+     * Takes next complete message received from the client.
+     * Request for the binary format is handled here and not returned.
+     *
+     * @param into Message to fill, see {@link MessageCodec}.
+     * @return <code>true</code> if a message has been decoded, <code>false</code> if no complete message has been received yet.
+     * @throws InvalidFrameException If the received data is not a valid frame.
+     */
+    public boolean nextMessage(Message into) throws InvalidFrameException {
+        while (decoder.nextMessage(into)) {
+            if (!Connection.isNegotiation(into))
+                return true;
+
+            binary = true;
+        }
+
+        return false;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * Sends message or keeps it in the outbound buffer if the socket cannot take it whole now.
+     *
+     * @param gameId ID of the game that message is related to.
+     * @param playerId ID of the player that message is directed to.
+     * @param action Type of action.
+     * @param parameters Additional parameters sent with message.
+     * @throws IOException If writing to the socket fails.
+     */
+    @Override
+    public void send(int gameId, int playerId, MessageParser.Action action, CharSequence parameters) throws IOException {
+        ensureCapacity(FrameEncoder.maxFrameLength(parameters));
+        FrameEncoder.encode(gameId, playerId, action, parameters, binary, outbound);
+        flush();
+    }
+
+    /**
+     * Writes pending bytes until the buffer is empty or the socket buffer is full.
+     * Called after a message is added and when the selector reports the socket as writable.
+     *
+     * @throws IOException If writing to the socket fails.
+     */
+    public void flush() throws IOException {
+        outbound.flip();
+
+        try {
+            channel.write(outbound);
+        }
+        finally {
+            outbound.compact();
+        }
+
+        if (key == null)
+            return;
+
+        int interestOps = key.interestOps();
+        int newInterestOps = outbound.position() > 0 ? interestOps | SelectionKey.OP_WRITE : interestOps & ~SelectionKey.OP_WRITE;
+
+        if (newInterestOps != interestOps)
+            key.interestOps(newInterestOps);
+    }
+
+    public boolean hasPendingWrites() {
+        return outbound.position() > 0;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (outbound.remaining() >= bytes)
+            return;
+
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(outbound.capacity() * 2, outbound.position() + bytes));
+        outbound.flip();
+        grown.put(outbound);
+        outbound = grown;
+    }
+
+    /**
+     * Closes the connection, drops messages that have not been sent and cancels its key.
+     * Closing already closed connection does nothing.
+     *
+     * @throws IOException If closing the socket fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen())
+            return;
+
+        outbound.clear();
+
+        if (key != null)
+            key.cancel();
+
+        ConnectionMetrics.connectionClosed();
+        channel.close();
+    }
+}
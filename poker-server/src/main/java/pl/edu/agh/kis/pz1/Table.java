@@ -0,0 +1,668 @@
+package pl.edu.agh.kis.pz1;
+
+import pl.edu.agh.kis.pz1.exceptions.*;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Class Table hosts one {@link Game} on the {@link PokerServer} together with connections of the players seated at it.
+ * Game on the table is a state machine, see {@link State}. Table does not wait for anything itself: it changes state
+ * in reaction to messages routed to it by the server and to tasks scheduled on the {@link EventLoopTimer},
+ * so one event loop carries out games on any number of tables.
+ * <p>
+ * Player asked to bid or draw has limited time for the decision. When it is over, the table checks for the player
+ * if the check costs nothing, folds otherwise, or keeps all cards, and tells the player with action TIMEOUT.
+ *
+ * @author Kacper Cienkosz
+ */
+class Table {
+    /**
+     * States of the game on the table. Every game goes through all of them in this order,
+     * except that a game ended by folding goes straight to SHOWDOWN.
+     */
+    enum State {
+        /**
+         * Waiting until all seats are taken by players that want to play.
+         */
+        WAITING,
+        /**
+         * Cards have been dealt, bidding starts after the deal delay.
+         */
+        DEALING,
+        /**
+         * Bidding before drawing.
+         */
+        BETTING_1,
+        /**
+         * Players discard and draw cards one by one.
+         */
+        DRAWING,
+        /**
+         * Bidding after drawing.
+         */
+        BETTING_2,
+        /**
+         * Prizes are paid and players are asked if they want to play on, then the table waits again.
+         */
+        SHOWDOWN
+    }
+
+    private final Game game;
+    private final int numberOfPlayers;
+    private final EventLoopTimer timer;
+    /**
+     * Time between dealing cards and the first bidding request, in milliseconds.
+     */
+    private final long dealDelayMillis;
+    /**
+     * Time for the decision of the player asked to bid or draw, in milliseconds, <code>0</code> means no limit.
+     */
+    private final long decisionMillis;
+    /**
+     * Called when the last player leaves the table.
+     */
+    private final Consumer<Table> onEmpty;
+    /**
+     * Connections of the players seated at the table, keys are players IDs.
+     */
+    private final HashMap<Integer, Connection> seats = new HashMap<>();
+    /**
+     * Players that want to play the next game.
+     */
+    private final Set<Integer> playersWantToPlay = new HashSet<>();
+    private State state = State.WAITING;
+    /**
+     * Whether at least one game has ended on the table, so waiting players are told how many players are missing.
+     */
+    private boolean gameEnded = false;
+    /**
+     * Index in the bidding order of the player whose bid or draw the table waits for.
+     */
+    private int turn = 0;
+    /**
+     * Scheduled change of the state, cancelled if the game ends earlier.
+     */
+    private EventLoopTimer.Timeout pendingTransition = null;
+    /**
+     * Decision deadline of the player whose turn it is.
+     */
+    private EventLoopTimer.Timeout turnClock = null;
+
+    /**
+     * Creates empty table.
+     *
+     * @param id ID of the game carried out on the table.
+     * @param numberOfPlayers Number of players needed to start the game.
+     * @param ante Ante taken from each player at the beginning of the game.
+     * @param random Source of randomness used for shuffling.
+     * @param timer Timer of the event loop serving the table.
+     * @param dealDelayMillis Time between dealing cards and the first bidding request, in milliseconds.
+     * @param decisionMillis Time for the decision of the player asked to bid or draw, in milliseconds, <code>0</code> means no limit.
+     * @param onEmpty Called when the last player leaves the table.
+     */
+    Table(int id, int numberOfPlayers, int ante, RandomSource random, EventLoopTimer timer, long dealDelayMillis,
+          long decisionMillis, Consumer<Table> onEmpty) {
+        this.game = new Game(id, numberOfPlayers, ante, random);
+        this.numberOfPlayers = numberOfPlayers;
+        this.timer = timer;
+        this.dealDelayMillis = dealDelayMillis;
+        this.decisionMillis = decisionMillis;
+        this.onEmpty = onEmpty;
+    }
+
+    public int getId() {
+        return game.getId();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Checks if new player can sit at the table. Players join only between games.
+     *
+     * @return <code>true</code> if there is a free seat, <code>false</code> otherwise.
+     */
+    public boolean canSeat() {
+        return freeSeats() > 0;
+    }
+
+    /**
+     * Returns number of players that can sit at the table now. Players join only between games.
+     *
+     * @return Number of free seats, <code>0</code> during a game.
+     */
+    public int freeSeats() {
+        return state == State.WAITING ? numberOfPlayers - game.getPlayers().size() : 0;
+    }
+
+    /**
+     * Checks if message from the connection may concern the player at this table.
+     *
+     * @param playerId ID of the player given in the message.
+     * @param connection Connection the message has been received from.
+     * @return <code>true</code> if the player is seated at the table with this connection.
+     */
+    public boolean isSeated(int playerId, Connection connection) {
+        return seats.get(playerId) == connection;
+    }
+
+    /**
+     * Seats new player at the table and sends them message with action ACCEPT.
+     * Game starts as soon as all seats are taken by players that want to play.
+     *
+     * @param playerId ID of the new player.
+     * @param connection Connection of the player.
+     * @throws IncorrectNumbersOfPlayersException If there is no free seat.
+     */
+    public void seat(int playerId, Connection connection) throws IncorrectNumbersOfPlayersException {
+        if (state != State.WAITING)
+            throw new IncorrectNumbersOfPlayersException("Game on the table has already started.");
+
+        game.newPlayer(playerId);
+        seats.put(playerId, connection);
+
+        // Parameter offers the binary format, clients that do not support it ignore it.
+        send(playerId, MessageParser.Action.ACCEPT, BinaryMessageCodec.NEGOTIATION);
+
+        if (gameEnded) {
+            sendEnd(playersMissing(), playersWantToPlay);
+            playersWantToPlay.clear();
+        }
+
+        playersWantToPlay.add(playerId);
+        dealIfReady();
+    }
+
+    /**
+     * Handles message received from the player seated at the table. Action that is not allowed
+     * in the current state is denied.
+     *
+     * @param received Message received from client.
+     */
+    public void handle(Message received) {
+        int playerId = received.getPlayerId();
+
+        switch (received.getActionType()) {
+            case DISCONNECT -> disconnect(playerId);
+            case CREDIT -> {
+                sendPlayerCredit(playerId);
+                promptIfTurn(playerId);
+            }
+            case HAND, EVAL -> {
+                if (!inGame()) {
+                    deny(playerId, "No game is in progress.");
+                    return;
+                }
+
+                if (received.getActionType() == MessageParser.Action.HAND)
+                    sendPlayerHands(playerId);
+                else
+                    sendPlayerEvaluations(playerId);
+
+                promptIfTurn(playerId);
+            }
+            case BID, FOLD -> {
+                if (!isBetting() || !isTurn(playerId))
+                    deny(playerId, "It is not your turn to bid.");
+                else if (received.getActionType() == MessageParser.Action.BID)
+                    handleBid(received);
+                else
+                    handleFold(playerId);
+            }
+            case DRAW -> {
+                if (state != State.DRAWING || !isTurn(playerId))
+                    deny(playerId, "It is not your turn to draw.");
+                else
+                    handleDraw(received);
+            }
+            case ACCEPT -> {
+                if (state != State.WAITING || !gameEnded) {
+                    deny(playerId, state == State.WAITING ? "Table is waiting for players." : "Game is in progress.");
+                    return;
+                }
+
+                playersWantToPlay.add(playerId);
+                dealIfReady();
+            }
+            default -> deny(playerId, "Unexpected action " + MessageCodec.code(received.getActionType()) + ".");
+        }
+    }
+
+    /**
+     * Method handles player leaving the table. Player that leaves during the game folds.
+     *
+     * @param playerId ID of the player that has disconnected.
+     */
+    public void disconnect(int playerId) {
+        System.out.println("Player " + playerId + " disconnected from game " + game.getId());
+        Connection connection = seats.remove(playerId);
+        playersWantToPlay.remove(playerId);
+
+        try {
+            if (connection != null)
+                connection.close();
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        boolean wasTurn = isTurn(playerId);
+
+        try {
+            game.removePlayer(playerId);
+            continueWithout(wasTurn);
+        }
+        catch (GameEndedByFoldingException e) {
+            // Showdown asks the remaining players to play on, so they are not sent END again.
+            enter(State.SHOWDOWN);
+        }
+
+        if (seats.isEmpty()) {
+            cancelPendingTransition();
+            stopTurnClock();
+            onEmpty.accept(this);
+        }
+    }
+
+    /**
+     * Method goes on with the game after a player has left without ending it.
+     *
+     * @param wasTurn Whether the table was waiting for the decision of the player that has left.
+     */
+    private void continueWithout(boolean wasTurn) {
+        switch (state) {
+            case BETTING_1, BETTING_2 -> {
+                if (wasTurn)
+                    requestBid();
+            }
+            case DRAWING -> {
+                if (wasTurn)
+                    nextDraw();
+            }
+            case WAITING -> {
+                if (gameEnded) {
+                    sendEnd(playersMissing(), playersWantToPlay);
+                    playersWantToPlay.clear();
+                }
+            }
+            default -> {
+                // Dealt game just has one more folded player.
+            }
+        }
+    }
+
+    /**
+     * Method changes state of the table and performs actions of the new state.
+     *
+     * @param next New state.
+     */
+    private void enter(State next) {
+        cancelPendingTransition();
+        stopTurnClock();
+        state = next;
+
+        switch (next) {
+            case WAITING -> dealIfReady();
+            case DEALING -> deal();
+            case BETTING_1, BETTING_2 -> {
+                turn = 0;
+                requestBid();
+            }
+            case DRAWING -> {
+                turn = -1;
+                nextDraw();
+            }
+            case SHOWDOWN -> showdown();
+        }
+    }
+
+    private void dealIfReady() {
+        if (state == State.WAITING && playersWantToPlay.size() == numberOfPlayers && game.canBegin())
+            enter(State.DEALING);
+    }
+
+    /**
+     * Method starts new game: sends START, hands and their evaluations and schedules the first bidding round.
+     * If the game cannot start, all players are disconnected and the table becomes empty.
+     */
+    private void deal() {
+        try {
+            game.newGame();
+        }
+        catch (NotEnoughCreditException | IncorrectNumbersOfPlayersException e) {
+            System.out.println(e.getMessage());
+            state = State.WAITING;
+            playersWantToPlay.clear();
+
+            for (Integer id: new ArrayList<>(seats.keySet())) {
+                send(id, MessageParser.Action.DISCONNECT, e.getMessage());
+                disconnect(id);
+            }
+
+            return;
+        }
+
+        for (Integer id: seats.keySet())
+            send(id, MessageParser.Action.START, "");
+
+        sendPlayerHands();
+        sendPlayerEvaluations();
+
+        pendingTransition = timer.schedule(dealDelayMillis, () -> enter(State.BETTING_1));
+    }
+
+    /**
+     * Method sends bidding request to the next player that has not folded or finishes bidding if it is over.
+     */
+    private void requestBid() {
+        if (game.biddingOver()) {
+            enter(state == State.BETTING_1 ? State.DRAWING : State.SHOWDOWN);
+            return;
+        }
+
+        ArrayList<Integer> biddingOrder = game.getBiddingOrder();
+
+        while (game.hasFolded(biddingOrder.get(turn)))
+            turn = (turn + 1) % biddingOrder.size();
+
+        sendBiddingRequest(biddingOrder.get(turn));
+        startTurnClock(biddingOrder.get(turn));
+    }
+
+    private void handleBid(Message received) {
+        int playerId = received.getPlayerId();
+
+        try {
+            game.bid(playerId, received.getIntParameter());
+
+            turn = (turn + 1) % game.getBiddingOrder().size();
+            requestBid();
+        }
+        catch (TooSmallBidException | NotEnoughCreditException e) {
+            deny(playerId, e.getMessage());
+            sendPlayerCredit(playerId);
+            sendBiddingRequest(playerId);
+        }
+        catch (NumberFormatException e) {
+            deny(playerId, "Incorrect input" + received.getActionParameters() + ".");
+            sendBiddingRequest(playerId);
+        }
+    }
+
+    private void handleFold(int playerId) {
+        try {
+            game.fold(playerId);
+        }
+        catch (GameEndedByFoldingException e) {
+            enter(State.SHOWDOWN);
+            return;
+        }
+
+        turn = (turn + 1) % game.getBiddingOrder().size();
+        requestBid();
+    }
+
+    /**
+     * Method sends draw request to the next player that has not folded. When every player has drawn,
+     * the second bidding round starts.
+     */
+    private void nextDraw() {
+        ArrayList<Integer> biddingOrder = game.getBiddingOrder();
+
+        do
+            turn++;
+        while (turn < biddingOrder.size() && game.hasFolded(biddingOrder.get(turn)));
+
+        if (turn < biddingOrder.size()) {
+            send(biddingOrder.get(turn), MessageParser.Action.DRAW, "");
+            startTurnClock(biddingOrder.get(turn));
+        }
+        else
+            enter(State.BETTING_2);
+    }
+
+    /**
+     * Method handles DRAW request received from the player.
+     * For further information about actions see {@link pl.edu.agh.kis.pz1.MessageParser}
+     *
+     * @param received Message received from client.
+     */
+    private void handleDraw(Message received) {
+        int playerId = received.getPlayerId();
+
+        try {
+            ArrayList<Integer> cardsToDiscard = new ArrayList<>();
+
+            if (received.getParametersLength() > 0)
+                for (String card: received.getActionParameters().split(" "))
+                    cardsToDiscard.add(Integer.parseInt(card));
+
+            game.draw(playerId, cardsToDiscard);
+            sendPlayerHands(playerId);
+            sendPlayerEvaluations(playerId);
+
+            nextDraw();
+        }
+        catch (NoSuchCardException | IncorrectNumberOfCardsException e) {
+            deny(playerId, e.getMessage());
+            send(playerId, MessageParser.Action.DRAW, "");
+        }
+        catch (NumberFormatException e) {
+            deny(playerId, "Incorrect input" + received.getActionParameters() + ".");
+            send(playerId, MessageParser.Action.DRAW, "");
+        }
+    }
+
+    /**
+     * Method handles player prizing after the game has finished and asks players if they want to play on.
+     */
+    private void showdown() {
+        HashMap<Integer, Integer> playerPrizes = game.splitStakeBetweenWinners();
+
+        for (Map.Entry<Integer, Integer> entry: playerPrizes.entrySet()) {
+            send(entry.getKey(), MessageParser.Action.PRIZE, String.valueOf(entry.getValue()));
+            sendPlayerCredit(entry.getKey());
+        }
+
+        if (PokerServer.TRACE)
+            System.out.println("Evaluation cache: " + EvaluationCache.SHARED);
+
+        gameEnded = true;
+        playersWantToPlay.clear();
+        sendEnd(playersMissing(), game.getPlayers());
+        enter(State.WAITING);
+    }
+
+    /**
+     * Method starts decision time of the player asked to bid or draw. Deadline of the previous player is cancelled,
+     * repeated requests to the same player do not extend it.
+     *
+     * @param playerId ID of the player whose turn it is.
+     */
+    private void startTurnClock(int playerId) {
+        stopTurnClock();
+
+        if (decisionMillis > 0)
+            turnClock = timer.schedule(decisionMillis, () -> decisionTimedOut(playerId));
+    }
+
+    private void stopTurnClock() {
+        if (turnClock != null) {
+            turnClock.cancel();
+            turnClock = null;
+        }
+    }
+
+    /**
+     * Method takes the default action for the player who has not decided in time: check if it costs nothing,
+     * fold otherwise, and keeping all cards when drawing. Player is told the action with message TIMEOUT.
+     *
+     * @param playerId ID of the player whose time is over.
+     */
+    private void decisionTimedOut(int playerId) {
+        turnClock = null;
+
+        if (!isTurn(playerId))
+            return;
+
+        try {
+            if (state == State.DRAWING) {
+                send(playerId, MessageParser.Action.TIMEOUT, MessageCodec.code(MessageParser.Action.DRAW));
+                game.draw(playerId, new ArrayList<>());
+                nextDraw();
+            }
+            // Ante is already counted as the bid of every player, so nothing to call may be negative.
+            else if (game.howMuchToBid(playerId) <= 0) {
+                send(playerId, MessageParser.Action.TIMEOUT, MessageCodec.code(MessageParser.Action.BID));
+                game.bid(playerId, 0);
+                turn = (turn + 1) % game.getBiddingOrder().size();
+                requestBid();
+            }
+            else {
+                send(playerId, MessageParser.Action.TIMEOUT, MessageCodec.code(MessageParser.Action.FOLD));
+                handleFold(playerId);
+            }
+        }
+        catch (IncorrectNumberOfCardsException | NoSuchCardException | NotEnoughCreditException | TooSmallBidException e) {
+            // Keeping cards and checking are always allowed.
+            e.printStackTrace();
+        }
+    }
+
+    private void cancelPendingTransition() {
+        if (pendingTransition != null) {
+            pendingTransition.cancel();
+            pendingTransition = null;
+        }
+    }
+
+    private int playersMissing() {
+        return numberOfPlayers - game.getPlayers().size();
+    }
+
+    private boolean inGame() {
+        return state == State.DEALING || isBetting() || state == State.DRAWING;
+    }
+
+    private boolean isBetting() {
+        return state == State.BETTING_1 || state == State.BETTING_2;
+    }
+
+    private boolean isTurn(int playerId) {
+        if (!isBetting() && state != State.DRAWING)
+            return false;
+
+        ArrayList<Integer> biddingOrder = game.getBiddingOrder();
+
+        return turn >= 0 && turn < biddingOrder.size() && biddingOrder.get(turn) == playerId;
+    }
+
+    /**
+     * Method asks the player whose decision the table waits for again, as the client shows the request
+     * after every answer it receives.
+     */
+    private void promptIfTurn(int playerId) {
+        if (!isTurn(playerId))
+            return;
+
+        if (isBetting())
+            sendBiddingRequest(playerId);
+        else
+            send(playerId, MessageParser.Action.DRAW, "");
+    }
+
+    /**
+     * Method handles sending all players their hands by sending message with action HAND.
+     * For further information about actions see {@link pl.edu.agh.kis.pz1.MessageParser}
+     */
+    private void sendPlayerHands() {
+        for (Integer id: game.getPlayers())
+            sendPlayerHands(id);
+    }
+
+    /**
+     * Method handles sending hand to one player by sending message with action HAND.
+     *
+     * @param id ID of the player that hand should be sent to.
+     */
+    private void sendPlayerHands(int id) {
+        StringBuilder sb = new StringBuilder();
+
+        for (Card card: game.getPlayerHand(id)) {
+            sb.append(card);
+            sb.append('\n');
+        }
+
+        send(id, MessageParser.Action.HAND, sb.toString());
+    }
+
+    /**
+     * Method handles sending all players evaluations of their hands by sending message with action EVAL.
+     */
+    private void sendPlayerEvaluations() {
+        for (Integer id: game.getPlayers())
+            sendPlayerEvaluations(id);
+    }
+
+    private void sendPlayerEvaluations(int id) {
+        send(id, MessageParser.Action.EVAL, String.valueOf(game.getPlayerHandEvaluation(id)));
+    }
+
+    /**
+     * Method sends bidding request to the player by sending message with action BID.
+     *
+     * @param id ID of the player that request should be sent to.
+     */
+    private void sendBiddingRequest(int id) {
+        if (!game.hasFolded(id))
+            send(id, MessageParser.Action.BID, game.getCurrentNegotiationStake() + " " + game.howMuchToBid(id));
+    }
+
+    private void sendPlayerCredit(int playerId) {
+        if (game.getPlayers().contains(playerId))
+            send(playerId, MessageParser.Action.CREDIT, String.valueOf(game.getPlayerCredit(playerId)));
+    }
+
+    /**
+     * Sends players information about game end by sending message with action END and information about how many players are missing.
+     *
+     * @param playersMissing Number of players needed to start new game.
+     * @param recipients IDs of the players that should receive the message.
+     */
+    private void sendEnd(int playersMissing, Set<Integer> recipients) {
+        for (Integer id: recipients)
+            send(id, MessageParser.Action.END, String.valueOf(playersMissing));
+    }
+
+    private void deny(int playerId, String reason) {
+        send(playerId, MessageParser.Action.DENY, reason);
+    }
+
+    /**
+     * Method handles sending messages to the player seated at the table.
+     * Messages to players that have already left are dropped.
+     *
+     * @param playerId ID of the player that message is directed to.
+     * @param action Type of action that is sent by server.
+     * @param actionParameter Additional parameters sent with message.
+     */
+    private void send(int playerId, MessageParser.Action action, String actionParameter) {
+        Connection connection = seats.get(playerId);
+
+        if (connection == null)
+            return;
+
+        try {
+            connection.send(game.getId(), playerId, action, actionParameter);
+
+            if (PokerServer.TRACE)
+                System.out.printf("Sending Message: %d/%d/%s/%s%n", game.getId(), playerId, MessageCodec.code(action), actionParameter);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package pl.edu.agh.kis.pz1;
+
+import pl.edu.agh.kis.pz1.exceptions.IncorrectNumbersOfPlayersException;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class TableThread drives one {@link Table} in the thread-per-connection mode of the {@link PokerServer}.
+ * Acceptor thread and reader threads of the connections (see {@link BlockingConnection}) do not touch the table,
+ * they post events to the queue of the table thread, so the table and its game are still used by one thread only.
+ * Delayed tasks of the table run on the same thread, it waits for events no longer than the timer allows.
+ * Thread ends when the last player leaves the table and no more events are waiting.
+ *
+ * @author Kacper Cienkosz
+ */
+class TableThread implements Runnable {
+    private final Table table;
+    private final EventLoopTimer timer = new EventLoopTimer();
+    private final BlockingQueue<Runnable> events = new LinkedBlockingQueue<>();
+    /**
+     * Whether the last player has left the table, changed only by the table thread.
+     */
+    private boolean empty = false;
+    /**
+     * Whether the thread has ended, events are not accepted anymore. Guarded by this.
+     */
+    private boolean closed = false;
+    /**
+     * Seats reserved by the acceptor thread whose seating has not been handled yet. Guarded by this.
+     */
+    private int pendingSeats = 0;
+    /**
+     * Free seats of the table after the last events, less the pending ones. Guarded by this.
+     */
+    private int freeSeats;
+
+    /**
+     * Creates table with a new game ID.
+     *
+     * @param numberOfPlayers Number of players at the table.
+     */
+    TableThread(int numberOfPlayers) {
+        int gameId = PokerServer.nextGameId();
+        table = new Table(gameId, numberOfPlayers, PokerServer.ANTE, PokerServer.randomSource(gameId), timer,
+                PokerServer.DEAL_DELAY_MILLIS, PokerServer.DECISION_MILLIS, this::retire);
+        freeSeats = numberOfPlayers;
+        System.out.println("Table " + gameId + " opened.");
+    }
+
+    public int getGameId() {
+        return table.getId();
+    }
+
+    /**
+     * Reserves seat for a new player if the table has a free one, the equivalent of {@link Table#canSeat()}
+     * for the acceptor thread. Thread does not end while a reserved seat waits for {@link #seat(BlockingConnection)}.
+     *
+     * @return <code>true</code> if the seat has been reserved, <code>false</code> if the table is full,
+     * in a game or the thread has ended.
+     */
+    public synchronized boolean reserveSeat() {
+        if (closed || freeSeats <= 0)
+            return false;
+
+        freeSeats--;
+        pendingSeats++;
+        return true;
+    }
+
+    /**
+     * Checks if the thread has ended, so it is not offered to new players anymore.
+     *
+     * @return <code>true</code> if the thread has ended.
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Posts seating of the new player at the seat reserved with {@link #reserveSeat()}. Can be called from any thread.
+     *
+     * @param connection Connection of the new player.
+     * @return <code>false</code> if the table thread has already ended.
+     */
+    public boolean seat(BlockingConnection connection) {
+        return post(() -> {
+            synchronized (this) {
+                pendingSeats--;
+            }
+
+            try {
+                table.seat(connection.getPlayerId(), connection);
+                empty = false;
+            }
+            catch (IncorrectNumbersOfPlayersException e) {
+                deny(connection, table.getId(), connection.getPlayerId(), e.getMessage());
+                close(connection);
+            }
+        });
+    }
+
+    /**
+     * Posts message received from the connection. Can be called from any thread.
+     * Messages about games the connection does not play at are denied.
+     *
+     * @param connection Connection the message has been received from.
+     * @param received Message received from client, not reused by the caller.
+     */
+    public void receive(BlockingConnection connection, Message received) {
+        post(() -> {
+            if (received.getGameId() != table.getId() || !table.isSeated(received.getPlayerId(), connection)) {
+                deny(connection, received.getGameId(), received.getPlayerId(),
+                        "Player " + received.getPlayerId() + " does not play game " + received.getGameId() + ".");
+                return;
+            }
+
+            table.handle(received);
+        });
+    }
+
+    /**
+     * Posts end of the stream of the connection. Can be called from any thread. Messages received before
+     * are handled first, so a player that has left with DISCONNECT is not reaped. Otherwise the connection is reaped:
+     * the player is removed from the table if still seated and the socket is closed.
+     *
+     * @param connection Connection of the player.
+     * @param reason Cause of closing the connection.
+     * @return <code>false</code> if the table thread has already ended.
+     */
+    public boolean disconnect(BlockingConnection connection, String reason) {
+        return post(() -> {
+            if (!connection.isOpen())
+                return;
+
+            ConnectionMetrics.connectionReaped();
+
+            if (table.isSeated(connection.getPlayerId(), connection)) {
+                table.disconnect(connection.getPlayerId());
+            }
+            else {
+                try {
+                    connection.close();
+                }
+                catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+
+            System.out.println("Connection of player " + connection.getPlayerId() + " reaped: " + reason + " "
+                    + ConnectionMetrics.summary());
+        });
+    }
+
+    private void retire(Table retired) {
+        empty = true;
+        System.out.println("Table " + retired.getId() + " retired.");
+    }
+
+    private synchronized boolean post(Runnable event) {
+        if (closed)
+            return false;
+
+        events.add(event);
+        return true;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!end()) {
+                long timeout = timer.millisToNext();
+                Runnable event = timeout < 0 ? events.take() : events.poll(timeout, TimeUnit.MILLISECONDS);
+
+                for (; event != null; event = events.poll())
+                    event.run();
+
+                timer.runExpired();
+                publishFreeSeats();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Method shows the acceptor thread how many players can sit at the table after the events handled so far.
+     * Seats reserved in the meantime are still taken.
+     */
+    private synchronized void publishFreeSeats() {
+        freeSeats = table.freeSeats() - pendingSeats;
+    }
+
+    /**
+     * Method ends the thread if the table is empty and nothing is posted, seating posted just before
+     * or reserved has to be handled.
+     *
+     * @return <code>true</code> if the thread has to end.
+     */
+    private synchronized boolean end() {
+        closed = empty && events.isEmpty() && pendingSeats == 0;
+        return closed;
+    }
+
+    private static void deny(Connection connection, int gameId, int playerId, String reason) {
+        try {
+            connection.send(gameId, playerId, MessageParser.Action.DENY, reason);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.close();
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
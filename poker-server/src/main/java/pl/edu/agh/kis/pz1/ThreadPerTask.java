@@ -0,0 +1,42 @@
+package pl.edu.agh.kis.pz1;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Class ThreadPerTask creates executor that runs every task in a new thread, used by the thread-per-connection mode
+ * of the {@link PokerServer}. Virtual threads are used when the runtime has them (Java 21 and later). They are looked up
+ * by reflection, because the server is built for Java 17, where platform threads of a cached pool are used instead.
+ *
+ * @author Kacper Cienkosz
+ */
+final class ThreadPerTask {
+    private ThreadPerTask() {
+    }
+
+    /**
+     * Creates executor of virtual threads or, if they are not available, of cached platform threads.
+     *
+     * @return Executor starting a thread for every task.
+     */
+    static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Checks whether the executor runs tasks in virtual threads.
+     *
+     * @param executor Executor created by {@link #newExecutor()}.
+     * @return <code>true</code> if the executor uses virtual threads, <code>false</code> for the pool of platform threads.
+     */
+    static boolean isVirtual(ExecutorService executor) {
+        return !(executor instanceof ThreadPoolExecutor);
+    }
+}
@@ -0,0 +1,127 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoopbackServerTest {
+    private static final int START_CREDIT = 1000;
+
+    /**
+     * Bot that keeps its own account of credits: ante and calls are taken, prizes are added.
+     * Credits reported by the server must agree with the account.
+     */
+    private static class AccountingBot extends CallingStrategy {
+        int credit = START_CREDIT;
+        int creditMismatches = 0;
+
+        AccountingBot(int games) {
+            super(games);
+        }
+
+        @Override
+        public void onStart() {
+            credit -= PokerServer.ANTE;
+        }
+
+        @Override
+        public void onPrize(int prize) {
+            super.onPrize(prize);
+            credit += prize;
+        }
+
+        @Override
+        public void onCredit(int reported) {
+            if (reported != credit)
+                creditMismatches++;
+        }
+
+        @Override
+        public Decision bid(int currentStake, int amountToCall) {
+            credit -= Math.max(0, amountToCall);
+            return super.bid(currentStake, amountToCall);
+        }
+    }
+
+    /**
+     * Bot that drops its connection without leaving the table when it is asked to bid for the first time.
+     */
+    private static class VanishingBot extends CallingStrategy {
+        private ClientSession session;
+
+        VanishingBot() {
+            super(1);
+        }
+
+        @Override
+        public void onConnect(ClientSession session) {
+            this.session = session;
+        }
+
+        @Override
+        public Decision bid(int currentStake, int amountToCall) {
+            session.close();
+            return null;
+        }
+    }
+
+    @Test
+    void givenCallingBots_whenPlayOverLoopback_thenAllGamesFinishAndCreditsAddUp() throws IOException {
+        int bots = 30;
+        int games = 5;
+        List<AccountingBot> accounts = new ArrayList<>();
+        long playedBefore = CallingStrategy.gamesPlayed.get();
+
+        try (LoopbackServer server = new LoopbackServer(3, 0)) {
+            ClientLoop loop = new ClientLoop();
+
+            for (int bot = 0; bot < bots; bot++) {
+                AccountingBot account = new AccountingBot(games);
+                accounts.add(account);
+                loop.connect(server.connect(), account, bot % 2 == 0);
+            }
+
+            play(server, loop);
+        }
+
+        assertEquals((long) bots * games, CallingStrategy.gamesPlayed.get() - playedBefore);
+        assertEquals(bots * START_CREDIT, accounts.stream().mapToInt(account -> account.credit).sum());
+        assertEquals(0, accounts.stream().mapToInt(account -> account.creditMismatches).sum());
+    }
+
+    @Test
+    void givenBotDroppingConnectionDuringGame_whenPlayOverLoopback_thenItIsReapedAndOthersFinish() throws IOException {
+        long playedBefore = CallingStrategy.gamesPlayed.get();
+        long reapedBefore = ConnectionMetrics.reaped();
+
+        try (LoopbackServer server = new LoopbackServer(3, 0)) {
+            ClientLoop loop = new ClientLoop();
+            loop.connect(server.connect(), new CallingStrategy(3), false);
+            loop.connect(server.connect(), new VanishingBot(), false);
+            loop.connect(server.connect(), new CallingStrategy(3), false);
+
+            play(server, loop);
+        }
+
+        // Remaining players finish the game and leave, as a player is missing.
+        assertEquals(2, CallingStrategy.gamesPlayed.get() - playedBefore);
+        assertEquals(1, ConnectionMetrics.reaped() - reapedBefore);
+    }
+
+    /**
+     * Runs the server and the bots in turns on this thread until every bot has left.
+     */
+    private static void play(LoopbackServer server, ClientLoop loop) throws IOException {
+        for (int step = 0; loop.hasSessions(); step++) {
+            assertTrue(step < 1_000_000, "Bots have not finished their games.");
+            server.poll();
+            loop.poll(false);
+        }
+
+        loop.close();
+    }
+}
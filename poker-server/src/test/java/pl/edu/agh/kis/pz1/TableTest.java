@@ -0,0 +1,129 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableTest {
+    /**
+     * Connection that keeps the messages sent by the table as "playerId/code/parameters".
+     */
+    private static final class RecordingConnection implements Connection {
+        private final List<String> sent = new ArrayList<>();
+        private boolean closed = false;
+
+        @Override
+        public void send(int gameId, int playerId, MessageParser.Action action, CharSequence parameters) {
+            sent.add(playerId + "/" + MessageCodec.code(action) + "/" + parameters);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        String last() {
+            return sent.get(sent.size() - 1);
+        }
+
+        long count(MessageParser.Action action) {
+            String code = "/" + MessageCodec.code(action) + "/";
+
+            return sent.stream().filter(message -> message.contains(code)).count();
+        }
+    }
+
+    private final EventLoopTimer timer = new EventLoopTimer(1, 4);
+    private int retired = 0;
+
+    @Test
+    void givenTwoPlayersBetting_whenOneDisconnects_thenOtherIsSentEndOnce() throws Exception {
+        Table table = newTable(0);
+        RecordingConnection first = new RecordingConnection();
+        RecordingConnection second = new RecordingConnection();
+        table.seat(1, first);
+        table.seat(2, second);
+        timer.runExpired();
+        assertEquals(Table.State.BETTING_1, table.getState());
+
+        table.disconnect(1);
+
+        assertTrue(first.closed);
+        assertEquals(Table.State.WAITING, table.getState());
+        assertEquals(1, second.count(MessageParser.Action.PRIZE));
+        assertEquals(1, second.count(MessageParser.Action.END));
+        assertEquals(0, retired);
+
+        table.disconnect(2);
+
+        assertEquals(1, retired);
+    }
+
+    @Test
+    void givenPlayerNotDecidingInTime_whenCheckCostsNothing_thenTableChecksForThem() throws Exception {
+        Table table = newTable(2);
+        RecordingConnection[] connections = { new RecordingConnection(), new RecordingConnection() };
+        table.seat(1, connections[0]);
+        table.seat(2, connections[1]);
+        timer.runExpired();
+
+        int asked = askedToBid(connections);
+        RecordingConnection other = connections[1 - asked];
+        // Ante counts as the first bid, so there is nothing to call.
+        assertEquals((asked + 1) + "/bid/0 -" + PokerServer.ANTE, connections[asked].last());
+
+        runUntil(() -> other.count(MessageParser.Action.BID) > 0);
+
+        assertTrue(connections[asked].sent.contains((asked + 1) + "/tmo/bid"));
+        assertEquals(Table.State.BETTING_1, table.getState());
+    }
+
+    @Test
+    void givenPlayerNotDecidingInTime_whenTheyHaveToCall_thenTableFoldsForThem() throws Exception {
+        Table table = newTable(2);
+        RecordingConnection[] connections = { new RecordingConnection(), new RecordingConnection() };
+        table.seat(1, connections[0]);
+        table.seat(2, connections[1]);
+        timer.runExpired();
+
+        int asked = askedToBid(connections);
+        RecordingConnection other = connections[1 - asked];
+        Message bid = new Message();
+        bid.set(1, asked + 1, MessageParser.Action.BID);
+        bid.setParameters("40");
+        table.handle(bid);
+        assertEquals((2 - asked) + "/bid/" + (PokerServer.ANTE + 40) + " 40", other.last());
+
+        runUntil(() -> table.getState() == Table.State.WAITING);
+
+        assertTrue(other.sent.contains((2 - asked) + "/tmo/fol"));
+        assertTrue(connections[asked].sent.contains((asked + 1) + "/prz/" + (2 * PokerServer.ANTE + 40)));
+        assertEquals(1, other.count(MessageParser.Action.END));
+    }
+
+    private static int askedToBid(RecordingConnection[] connections) {
+        return connections[0].last().contains("/bid/") ? 0 : 1;
+    }
+
+    /**
+     * Runs the timer as the event loop does until the condition holds.
+     */
+    private void runUntil(BooleanSupplier condition) throws InterruptedException {
+        long giveUp = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < giveUp, "Decision time has not run out.");
+            Thread.sleep(Math.max(timer.millisToNext(), 0));
+            timer.runExpired();
+        }
+    }
+
+    private Table newTable(long decisionMillis) {
+        return new Table(1, 2, PokerServer.ANTE, RandomSource.seeded(7), timer, 0, decisionMillis, table -> retired++);
+    }
+}
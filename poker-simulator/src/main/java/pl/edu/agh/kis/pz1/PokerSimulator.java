@@ -0,0 +1,70 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Class PokerSimulator is the command line entry point of the {@link Simulator}.
+ * Arguments are the number of hands followed by the strategies of the seats (see {@link Strategies}),
+ * e.g. <code>1000000 value passive random</code>. Ante is set with property <code>poker.ante</code> (default 20),
+ * seed with <code>poker.random</code> (a number, games are random by default) and number of threads
+ * with <code>poker.parallelism</code> (default number of processors).
+ *
+ * @author Kacper Cienkosz
+ */
+public class PokerSimulator {
+    private static final List<String> DEFAULT_STRATEGIES = List.of("value", "passive", "random");
+
+    /**
+     * Runs the simulation and prints the report.
+     *
+     * @param args Number of hands and names of the strategies.
+     */
+    public static void main(String[] args) {
+        long hands = 1_000_000;
+
+        try {
+            if (args.length > 0)
+                hands = Long.parseLong(args[0]);
+        }
+        catch (NumberFormatException e) {
+            System.out.println("Number of hands is not an integer so it is set to default value: " + hands);
+        }
+
+        List<String> names = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : DEFAULT_STRATEGIES;
+        List<Supplier<Strategy>> strategies = new ArrayList<>();
+
+        try {
+            for (String name: names)
+                strategies.add(Strategies.byName(name));
+        }
+        catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage() + " Strategies are: passive, random, value.");
+            return;
+        }
+
+        String random = System.getProperty("poker.random");
+        Long seed = null;
+
+        try {
+            if (random != null)
+                seed = Long.parseLong(random.trim());
+        }
+        catch (NumberFormatException e) {
+            System.out.println("Seed " + random + " is not a number, games are random.");
+        }
+
+        int ante = Integer.getInteger("poker.ante", 20);
+        int parallelism = Math.max(1, Integer.getInteger("poker.parallelism", Runtime.getRuntime().availableProcessors()));
+        System.out.println("Simulating " + hands + " hands of " + names + ", ante " + ante + ", threads: " + parallelism);
+
+        try {
+            System.out.print(new Simulator(names, strategies, ante, seed, parallelism).run(hands).report());
+        }
+        catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class SimulationResult sums up games played by the {@link Simulator}, separately for every seat.
+ * Results of the threads are merged with {@link #merge(SimulationResult)}.
+ *
+ * @author Kacper Cienkosz
+ */
+public final class SimulationResult {
+    private final List<String> strategies;
+    private long hands = 0;
+    private long elapsedNanos = 0;
+    private final long[] netCredits;
+    private final long[] handsWon;
+    private final long[] showdowns;
+    private final long[] folds;
+    private final long[] busts;
+
+    SimulationResult(List<String> strategies) {
+        this.strategies = strategies;
+        this.netCredits = new long[strategies.size()];
+        this.handsWon = new long[strategies.size()];
+        this.showdowns = new long[strategies.size()];
+        this.folds = new long[strategies.size()];
+        this.busts = new long[strategies.size()];
+    }
+
+    void handPlayed() {
+        hands++;
+    }
+
+    /**
+     * Records outcome of a hand for the seat.
+     *
+     * @param seat Seat of the player.
+     * @param net Credits won in the hand less credits bid, ante included.
+     * @param prize Prize paid to the player.
+     * @param folded Whether the player has folded.
+     */
+    void record(int seat, int net, int prize, boolean folded) {
+        netCredits[seat] += net;
+
+        if (prize > 0)
+            handsWon[seat]++;
+
+        if (folded)
+            folds[seat]++;
+        else
+            showdowns[seat]++;
+    }
+
+    void bust(int seat) {
+        busts[seat]++;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Adds results of another part of the simulation to this one.
+     *
+     * @param other Results of the same seats.
+     * @return This result.
+     */
+    SimulationResult merge(SimulationResult other) {
+        hands += other.hands;
+
+        for (int seat = 0; seat < strategies.size(); seat++) {
+            netCredits[seat] += other.netCredits[seat];
+            handsWon[seat] += other.handsWon[seat];
+            showdowns[seat] += other.showdowns[seat];
+            folds[seat] += other.folds[seat];
+            busts[seat] += other.busts[seat];
+        }
+
+        return this;
+    }
+
+    public long getHands() {
+        return hands;
+    }
+
+    public double getHandsPerSecond() {
+        return elapsedNanos == 0 ? 0 : hands * 1e9 / elapsedNanos;
+    }
+
+    public long getNetCredits(int seat) {
+        return netCredits[seat];
+    }
+
+    public long getHandsWon(int seat) {
+        return handsWon[seat];
+    }
+
+    public long getShowdowns(int seat) {
+        return showdowns[seat];
+    }
+
+    public long getFolds(int seat) {
+        return folds[seat];
+    }
+
+    public long getBusts(int seat) {
+        return busts[seat];
+    }
+
+    /**
+     * Formats the report: speed of the simulation and a row for every seat with credits won per 100 hands.
+     *
+     * @return Report for the console.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Hands: %d, time: %.2f s, hands/s: %.0f%n", hands, elapsedNanos / 1e9, getHandsPerSecond()));
+        sb.append(String.format("%-5s %-10s %14s %12s %10s %10s %10s %8s%n",
+                "Seat", "Strategy", "Net credits", "Per 100", "Won", "Showdowns", "Folds", "Busts"));
+
+        for (int seat = 0; seat < strategies.size(); seat++)
+            sb.append(String.format("%-5d %-10s %14d %12.1f %10d %10d %10d %8d%n", seat, strategies.get(seat),
+                    netCredits[seat], hands == 0 ? 0 : netCredits[seat] * 100.0 / hands, handsWon[seat],
+                    showdowns[seat], folds[seat], busts[seat]));
+
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationResult{hands=" + hands + ", netCredits=" + Arrays.toString(netCredits) + "}";
+    }
+}
@@ -0,0 +1,236 @@
+package pl.edu.agh.kis.pz1;
+
+import pl.edu.agh.kis.pz1.exceptions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Class Simulator plays poker games without server and clients, calling {@link Game} directly in the same order
+ * as the tables of the server do. Every seat is played by a {@link Strategy}.
+ * <p>
+ * Hands are split into chunks of {@link #CHUNK_HANDS} played on separate games in parallel by a fork-join pool.
+ * Players start with full credit, when one of them cannot pay the ante the chunk goes on with a new game.
+ * Seeded simulation gives the same results however the chunks are scheduled, as every chunk has its own seeded
+ * deck and random source of the strategies.
+ *
+ * @author Kacper Cienkosz
+ */
+public class Simulator {
+    /**
+     * Number of hands played by one task of the pool.
+     */
+    static final int CHUNK_HANDS = 10_000;
+
+    private final List<String> names;
+    private final List<Supplier<Strategy>> strategies;
+    private final int ante;
+    private final Long seed;
+    private final int parallelism;
+
+    /**
+     * Creates simulator.
+     *
+     * @param names Names of the strategies, shown in the report.
+     * @param strategies Factories of the strategies of the seats, 2 to 4 of them.
+     * @param ante Ante taken from each player at the beginning of the game.
+     * @param seed Seed of the decks and strategies, <code>null</code> for random games.
+     * @param parallelism Number of threads playing games.
+     */
+    public Simulator(List<String> names, List<Supplier<Strategy>> strategies, int ante, Long seed, int parallelism) {
+        if (strategies.size() < 2 || strategies.size() > 4 || names.size() != strategies.size())
+            throw new IllegalArgumentException("Game needs between 2 and 4 named strategies.");
+
+        this.names = List.copyOf(names);
+        this.strategies = List.copyOf(strategies);
+        this.ante = ante;
+        this.seed = seed;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Plays the hands and sums up their results.
+     *
+     * @param hands Number of hands to play.
+     * @return Results of all hands.
+     */
+    public SimulationResult run(long hands) {
+        long chunks = (hands + CHUNK_HANDS - 1) / CHUNK_HANDS;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+
+        try {
+            SimulationResult result = pool.submit(() -> LongStream.range(0, chunks)
+                    .parallel()
+                    .mapToObj(chunk -> playChunk(chunk, Math.min(CHUNK_HANDS, hands - chunk * CHUNK_HANDS)))
+                    .reduce(SimulationResult::merge)
+                    .orElseGet(() -> new SimulationResult(names)))
+                    .join();
+
+            result.setElapsedNanos(System.nanoTime() - start);
+            return result;
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays part of the hands on one thread.
+     *
+     * @param chunk Number of the chunk, seeds of seeded simulation are derived from it.
+     * @param hands Number of hands in the chunk.
+     * @return Results of the chunk.
+     */
+    private SimulationResult playChunk(long chunk, long hands) {
+        RandomSource deckRandom = seed == null ? RandomSource.threadLocal() : RandomSource.seeded(seed + 2 * chunk);
+        RandomSource strategyRandom = seed == null ? RandomSource.threadLocal() : RandomSource.seeded(seed + 2 * chunk + 1);
+        int numberOfPlayers = strategies.size();
+        Strategy[] seats = new Strategy[numberOfPlayers];
+        Situation[] situations = new Situation[numberOfPlayers];
+        int[] creditBefore = new int[numberOfPlayers];
+        SimulationResult result = new SimulationResult(names);
+
+        for (int id = 0; id < numberOfPlayers; id++) {
+            seats[id] = strategies.get(id).get();
+            situations[id] = new Situation(id, strategyRandom);
+        }
+
+        Game game = newGame(deckRandom);
+
+        for (long hand = 0; hand < hands; hand++) {
+            for (int id = 0; id < numberOfPlayers; id++)
+                creditBefore[id] = game.getPlayerCredit(id);
+
+            if (!deal(game)) {
+                for (int id = 0; id < numberOfPlayers; id++)
+                    if (creditBefore[id] < ante)
+                        result.bust(id);
+
+                game = newGame(deckRandom);
+
+                for (int id = 0; id < numberOfPlayers; id++)
+                    creditBefore[id] = game.getPlayerCredit(id);
+
+                if (!deal(game))
+                    throw new IllegalStateException("New players cannot pay the ante.");
+            }
+
+            playHand(game, seats, situations);
+
+            HashMap<Integer, Integer> prizes = game.splitStakeBetweenWinners();
+            result.handPlayed();
+
+            for (int id = 0; id < numberOfPlayers; id++)
+                result.record(id, game.getPlayerCredit(id) - creditBefore[id], prizes.get(id), game.hasFolded(id));
+        }
+
+        return result;
+    }
+
+    private Game newGame(RandomSource random) {
+        Game game = new Game(0, strategies.size(), ante, random);
+
+        try {
+            for (int id = 0; id < strategies.size(); id++)
+                game.newPlayer(id);
+        }
+        catch (IncorrectNumbersOfPlayersException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return game;
+    }
+
+    /**
+     * Starts new hand of the game.
+     *
+     * @return <code>false</code> if one of the players cannot pay the ante.
+     */
+    private static boolean deal(Game game) {
+        try {
+            game.newGame();
+            return true;
+        }
+        catch (NotEnoughCreditException e) {
+            return false;
+        }
+        catch (IncorrectNumbersOfPlayersException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Plays hand that has just been dealt up to the showdown: bidding, drawing and bidding again,
+     * unless all players but one fold.
+     */
+    private void playHand(Game game, Strategy[] seats, Situation[] situations) {
+        if (bet(game, seats, situations, 1))
+            return;
+
+        ArrayList<Integer> cardsToDiscard = new ArrayList<>(4);
+
+        for (Integer id: game.getBiddingOrder()) {
+            if (game.hasFolded(id))
+                continue;
+
+            cardsToDiscard.clear();
+            cardsToDiscard.addAll(seats[id].discard(situations[id].update(game, 1)));
+
+            try {
+                game.draw(id, cardsToDiscard);
+            }
+            catch (IncorrectNumberOfCardsException | NoSuchCardException e) {
+                // Invalid choice of the strategy, the player keeps all cards.
+            }
+        }
+
+        bet(game, seats, situations, 2);
+    }
+
+    /**
+     * Plays one bidding round in the bidding order, as long as somebody has to bid.
+     *
+     * @return <code>true</code> if the game has been ended by folding.
+     */
+    private static boolean bet(Game game, Strategy[] seats, Situation[] situations, int round) {
+        ArrayList<Integer> biddingOrder = game.getBiddingOrder();
+        int turn = 0;
+
+        while (!game.biddingOver()) {
+            while (game.hasFolded(biddingOrder.get(turn)))
+                turn = (turn + 1) % biddingOrder.size();
+
+            int id = biddingOrder.get(turn);
+            Situation situation = situations[id].update(game, round);
+            int bid = seats[id].bid(situation);
+            int toCall = situation.getAmountToCall();
+
+            try {
+                if (bid == Strategy.FOLD || !(tryBid(game, id, Math.max(bid, toCall)) || tryBid(game, id, toCall)))
+                    game.fold(id);
+            }
+            catch (GameEndedByFoldingException e) {
+                return true;
+            }
+
+            turn = (turn + 1) % biddingOrder.size();
+        }
+
+        return false;
+    }
+
+    private static boolean tryBid(Game game, int playerId, int bid) {
+        try {
+            game.bid(playerId, bid);
+            return true;
+        }
+        catch (NotEnoughCreditException | TooSmallBidException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class Situation shows a {@link Strategy} what its player knows during a game run by the {@link Simulator}:
+ * their hand, how much they have to bid and their credit, but not the cards of the other players.
+ * One instance per seat is reused for every decision, values are read from the game when asked for.
+ *
+ * @author Kacper Cienkosz
+ */
+public final class Situation {
+    private final int playerId;
+    private final RandomSource random;
+    private Game game;
+    private int round;
+
+    Situation(int playerId, RandomSource random) {
+        this.playerId = playerId;
+        this.random = random;
+    }
+
+    Situation update(Game game, int round) {
+        this.game = game;
+        this.round = round;
+        return this;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * Returns bidding round of the decision.
+     *
+     * @return <code>1</code> before drawing, <code>2</code> after drawing.
+     */
+    public int getRound() {
+        return round;
+    }
+
+    public List<Card> getHand() {
+        return Collections.unmodifiableList(game.getPlayerHand(playerId));
+    }
+
+    public HandEvaluator.HandValues getHandValue() {
+        return game.getPlayerHandEvaluation(playerId);
+    }
+
+    /**
+     * Returns number of credits the player has to bid to stay in the game.
+     * Ante counts as the first bid while the stake of a new hand starts at <code>0</code> (bids of the previous hand
+     * are cleared when the hand is dealt), so the game may report less than nothing to call, which is returned as <code>0</code>.
+     *
+     * @return Credits to call, <code>0</code> if the player can check.
+     */
+    public int getAmountToCall() {
+        return Math.max(0, game.howMuchToBid(playerId));
+    }
+
+    public int getCurrentStake() {
+        return game.getCurrentNegotiationStake();
+    }
+
+    public int getCredit() {
+        return game.getPlayerCredit(playerId);
+    }
+
+    /**
+     * Returns random source of the strategies of the simulation thread, seeded when the simulation is seeded.
+     *
+     * @return Random source for mixed strategies.
+     */
+    public RandomSource getRandom() {
+        return random;
+    }
+}
@@ -0,0 +1,121 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Class Strategies creates built-in strategies of the {@link Simulator}:
+ * <ul>
+ *     <li>"passive" - always checks or calls and keeps all cards,</li>
+ *     <li>"random" - folds, calls or raises the ante at random and discards random cards,</li>
+ *     <li>"value" - raises with three of a kind or better, calls with a pair or better, folds weaker hands
+ *     if calling costs anything and discards cards that do not make a pair.</li>
+ * </ul>
+ *
+ * @author Kacper Cienkosz
+ */
+public final class Strategies {
+    private static final List<Integer> KEEP_ALL = List.of();
+
+    private Strategies() {
+    }
+
+    /**
+     * Returns factory of the strategy described by name.
+     *
+     * @param name Name of the strategy: "passive", "random" or "value".
+     * @return Factory creating new instances of the strategy.
+     * @throws IllegalArgumentException if name is not recognized.
+     */
+    public static Supplier<Strategy> byName(String name) {
+        return switch (name) {
+            case "passive" -> Passive::new;
+            case "random" -> Random::new;
+            case "value" -> Value::new;
+            default -> throw new IllegalArgumentException("Unknown strategy: " + name + ".");
+        };
+    }
+
+    private static final class Passive implements Strategy {
+        @Override
+        public int bid(Situation situation) {
+            return situation.getAmountToCall();
+        }
+
+        @Override
+        public List<Integer> discard(Situation situation) {
+            return KEEP_ALL;
+        }
+    }
+
+    private static final class Random implements Strategy {
+        private static final int RAISE = 20;
+
+        @Override
+        public int bid(Situation situation) {
+            return switch (situation.getRandom().nextInt(4)) {
+                case 0 -> situation.getAmountToCall() > 0 ? FOLD : 0;
+                case 1 -> situation.getAmountToCall() + RAISE;
+                default -> situation.getAmountToCall();
+            };
+        }
+
+        @Override
+        public List<Integer> discard(Situation situation) {
+            List<Integer> cards = new ArrayList<>(4);
+
+            for (int i = 0; i < 4; i++)
+                if (situation.getRandom().nextInt(2) == 0)
+                    cards.add(i);
+
+            return cards;
+        }
+    }
+
+    private static final class Value implements Strategy {
+        private static final int RAISE = 20;
+
+        @Override
+        public int bid(Situation situation) {
+            HandEvaluator.HandValues value = situation.getHandValue();
+            int toCall = situation.getAmountToCall();
+
+            // Raises only when nobody has raised yet, so two value players do not raise each other forever.
+            if (value.compareTo(HandEvaluator.HandValues.THREEOFAKIND) >= 0 && toCall == 0)
+                return RAISE;
+
+            if (value.compareTo(HandEvaluator.HandValues.PAIR) >= 0 || toCall == 0)
+                return toCall;
+
+            return FOLD;
+        }
+
+        @Override
+        public List<Integer> discard(Situation situation) {
+            if (situation.getHandValue().compareTo(HandEvaluator.HandValues.STRAIGHT) >= 0)
+                return KEEP_ALL;
+
+            List<Card> hand = situation.getHand();
+            int[] rankCounts = new int[Card.Rank.values().length];
+            int highest = 0;
+
+            for (int i = 0; i < hand.size(); i++) {
+                rankCounts[hand.get(i).rank().ordinal()]++;
+
+                if (hand.get(i).rank().compareTo(hand.get(highest).rank()) > 0)
+                    highest = i;
+            }
+
+            List<Integer> cards = new ArrayList<>(4);
+            // Without a pair only the highest card is kept.
+            int kept = situation.getHandValue() == HandEvaluator.HandValues.HIGHCARD ? highest : -1;
+
+            for (int i = 0; i < hand.size(); i++)
+                if (rankCounts[hand.get(i).rank().ordinal()] < 2 && i != kept)
+                    cards.add(i);
+
+            return cards;
+        }
+    }
+}
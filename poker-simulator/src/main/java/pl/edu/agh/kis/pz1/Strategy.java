@@ -0,0 +1,34 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.List;
+
+/**
+ * Interface Strategy decides for one seat of a game played by the {@link Simulator}.
+ * Every simulation thread gets its own instances, so strategies may keep state without synchronization.
+ * Built-in strategies are created with {@link Strategies#byName(String)}.
+ *
+ * @author Kacper Cienkosz
+ */
+public interface Strategy {
+    /**
+     * Value returned by {@link #bid(Situation)} to fold.
+     */
+    int FOLD = -1;
+
+    /**
+     * Decides the bid of the player. Bid smaller than {@link Situation#getAmountToCall()} is raised to it,
+     * bid the player cannot afford is lowered to it and the player folds if they cannot afford even that.
+     *
+     * @param situation Situation of the player, valid only during the call.
+     * @return Number of credits to bid, <code>0</code> to check or {@link #FOLD}.
+     */
+    int bid(Situation situation);
+
+    /**
+     * Decides which cards the player discards before drawing new ones.
+     *
+     * @param situation Situation of the player, valid only during the call.
+     * @return Indices (0 to 4) of at most 4 cards of the hand to discard, empty to keep all cards.
+     */
+    List<Integer> discard(Situation situation);
+}
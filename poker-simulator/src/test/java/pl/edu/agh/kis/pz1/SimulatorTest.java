@@ -0,0 +1,80 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatorTest {
+    private static final List<String> NAMES = List.of("value", "passive", "random");
+
+    @Test
+    void givenSeed_whenRunWithDifferentParallelism_thenReturnSameResults() {
+        SimulationResult sequential = simulator(1).run(25_000);
+        SimulationResult parallel = simulator(4).run(25_000);
+
+        assertEquals(25_000, sequential.getHands());
+        assertEquals(sequential.toString(), parallel.toString());
+
+        for (int seat = 0; seat < NAMES.size(); seat++) {
+            assertEquals(sequential.getHandsWon(seat), parallel.getHandsWon(seat));
+            assertEquals(sequential.getBusts(seat), parallel.getBusts(seat));
+        }
+    }
+
+    @Test
+    void givenHands_whenRun_thenEverySeatPlaysEveryHandAndNoCreditsAreCreated() {
+        SimulationResult result = simulator(2).run(12_345);
+        long total = 0;
+
+        for (int seat = 0; seat < NAMES.size(); seat++) {
+            assertEquals(12_345, result.getShowdowns(seat) + result.getFolds(seat));
+            total += result.getNetCredits(seat);
+        }
+
+        // Stake that cannot be split evenly between winners is lost.
+        assertTrue(total <= 0);
+        assertTrue(result.getNetCredits(0) > 0);
+    }
+
+    @Test
+    void givenHandsEndedByFoldingAfterRaise_whenRun_thenEveryHandStartsWithNoStake() {
+        AtomicLong raises = new AtomicLong();
+        // Player who sees no stake in the first round raises, the others fold.
+        Supplier<Strategy> raiseFirst = () -> new Strategy() {
+            @Override
+            public int bid(Situation situation) {
+                if (situation.getRound() == 1 && situation.getCurrentStake() == 0) {
+                    raises.incrementAndGet();
+                    return 20;
+                }
+
+                return FOLD;
+            }
+
+            @Override
+            public List<Integer> discard(Situation situation) {
+                return List.of();
+            }
+        };
+
+        SimulationResult result = new Simulator(NAMES, List.of(raiseFirst, raiseFirst, raiseFirst), 20, 2718L, 2)
+                .run(12_345);
+
+        assertEquals(12_345, raises.get());
+        assertEquals(2 * 12_345, result.getFolds(0) + result.getFolds(1) + result.getFolds(2));
+    }
+
+    @Test
+    void givenUnknownStrategy_whenByName_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> Strategies.byName("bluff"));
+    }
+
+    private static Simulator simulator(int parallelism) {
+        List<Supplier<Strategy>> strategies = NAMES.stream().map(Strategies::byName).toList();
+        return new Simulator(NAMES, strategies, 20, 2718L, parallelism);
+    }
+}